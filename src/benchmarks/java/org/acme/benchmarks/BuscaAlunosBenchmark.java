@@ -0,0 +1,85 @@
+package org.acme.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.acme.entities.Aluno;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parte em Java da busca de alunos: os filtros rodam no banco ({@code AlunoRepository.search}), e a cada
+ * requisição sobram a normalização do termo buscado (a mesma usada ao gravar {@code nomeNormalizado}) e a
+ * serialização das projeções devolvidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaAlunosBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int resultados;
+
+    private ObjectMapper objectMapper;
+    private String[] termos;
+    private int proximoTermo;
+    private List<Map<String, Object>> projecoes;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Random random = new Random(42);
+        termos = new String[256];
+        for (int i = 0; i < termos.length; i++) {
+            termos[i] = "  " + DadosBenchmark.nome(random).toUpperCase() + " ";
+        }
+
+        projecoes = new ArrayList<>(resultados);
+        for (Aluno aluno : DadosBenchmark.alunos(resultados)) {
+            Map<String, Object> projecao = new HashMap<>();
+            projecao.put("id", aluno.id);
+            projecao.put("nome", aluno.getNome());
+            projecao.put("idade", aluno.getIdade());
+            projecao.put("dataNascimento", aluno.getDataNascimento());
+            projecao.put("nomeResponsavel", aluno.getNomeResponsavel());
+            projecao.put("telefoneResponsavel", aluno.getTelefoneResponsavel());
+            projecao.put("emailResponsavel", aluno.getEmailResponsavel());
+            projecao.put("endereco", aluno.getEndereco());
+            projecao.put("observacoes", aluno.getObservacoes());
+            projecao.put("ativo", aluno.getAtivo());
+            projecoes.add(projecao);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String normalizarTermo() {
+        return Aluno.normalizarNome(termos[proximoTermo++ & (termos.length - 1)]);
+    }
+
+    @Benchmark
+    public byte[] serializarResultado() throws Exception {
+        return objectMapper.writeValueAsBytes(projecoes);
+    }
+}
@@ -0,0 +1,89 @@
+package org.acme.benchmarks;
+
+import org.acme.entities.Aluno;
+import org.acme.export.CsvWriter;
+import org.acme.importacao.CsvReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatação das linhas da exportação de alunos ({@link CsvWriter}, mesmas colunas do {@code CsvExportService})
+ * e leitura do mesmo arquivo pelo {@link CsvReader} da importação. A saída vai para um stream descartável,
+ * então só o custo de formatar e codificar entra na medida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvBenchmark {
+
+    @Param({"100", "10000"})
+    int linhas;
+
+    private List<Aluno> alunos;
+    private String arquivo;
+
+    @Setup
+    public void preparar() throws IOException {
+        alunos = DadosBenchmark.alunos(linhas);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        escrever(saida);
+        arquivo = saida.toString(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void exportarAlunos() throws IOException {
+        escrever(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void importarAlunos(Blackhole blackhole) throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader(arquivo))) {
+            List<String> registro;
+            while ((registro = csv.proximoRegistro()) != null) {
+                blackhole.consume(registro);
+            }
+        }
+    }
+
+    private void escrever(OutputStream output) throws IOException {
+        try (CsvWriter csv = new CsvWriter(output)) {
+            csv.header("ID", "Nome", "Idade", "Data Nascimento", "Nome Responsavel", "Telefone Responsavel",
+                    "Email Responsavel", "Endereco", "Observacoes", "Ativo");
+            for (Aluno aluno : alunos) {
+                csv.field(aluno.id)
+                        .field(aluno.getNome())
+                        .field(aluno.getIdade())
+                        .field(aluno.getDataNascimento() != null ? aluno.getDataNascimento().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
+                        .field(aluno.getNomeResponsavel())
+                        .field(aluno.getTelefoneResponsavel())
+                        .field(aluno.getEmailResponsavel())
+                        .field(aluno.getEndereco())
+                        .field(aluno.getObservacoes())
+                        .field(aluno.getAtivo())
+                        .endRow();
+            }
+        }
+    }
+}
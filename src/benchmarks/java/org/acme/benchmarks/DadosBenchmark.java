@@ -0,0 +1,132 @@
+package org.acme.benchmarks;
+
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Massa de dados determinística (semente fixa) para os benchmarks, para que execuções diferentes sejam comparáveis.
+ */
+final class DadosBenchmark {
+
+    private static final String[] NOMES = {"João", "Maria", "Ana Clara", "José", "Conceição", "Luís Otávio", "Beatriz", "Mônica"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Gonçalves", "Araújo", "Pereira", "D'Ávila", "Lima", "Simões"};
+
+    private DadosBenchmark() {
+    }
+
+    static List<Escola> escolas(int quantidade) {
+        Random random = new Random(42);
+        List<Escola> escolas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Escola escola = new Escola("Escola Municipal " + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + i,
+                    100 + random.nextInt(900));
+            escola.id = (long) i + 1;
+            escola.setEndereco("Rua " + i + ", Centro");
+            escola.setTelefone("(11) 3333-" + (1000 + i % 9000));
+            escola.setEmail("escola" + i + "@exemplo.com");
+            escola.setDiretor(nome(random));
+            escola.setDataFundacao(LocalDateTime.of(1950 + random.nextInt(70), 1 + random.nextInt(12), 1, 0, 0));
+            escola.setDataCriacao(LocalDateTime.of(2024, 1, 1, 8, 0));
+            escolas.add(escola);
+        }
+        return escolas;
+    }
+
+    static List<Aluno> alunos(int quantidade) {
+        Random random = new Random(42);
+        List<Aluno> alunos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Aluno aluno = new Aluno(nome(random), 6 + random.nextInt(12));
+            aluno.id = (long) i + 1;
+            aluno.setDataNascimento(LocalDate.of(2008 + random.nextInt(12), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            aluno.setNomeResponsavel(nome(random));
+            aluno.setTelefoneResponsavel("(11) 9" + (10000000 + random.nextInt(89999999)));
+            aluno.setEmailResponsavel("responsavel" + i + "@exemplo.com");
+            // Parte dos endereços e observações tem vírgula, aspas ou quebra de linha, que exigem aspas no CSV
+            aluno.setEndereco(i % 3 == 0 ? "Av. Brasil, " + i : "Rua das Flores " + i);
+            aluno.setObservacoes(i % 10 == 0 ? "Alergia a \"amendoim\"\nUsa óculos" : null);
+            aluno.setDataCriacao(LocalDateTime.of(2024, 2, 1, 8, 0));
+            alunos.add(aluno);
+        }
+        return alunos;
+    }
+
+    static List<Matricula> matriculas(List<Aluno> alunos, List<Escola> escolas) {
+        List<Matricula> matriculas = new ArrayList<>(alunos.size());
+        for (int i = 0; i < alunos.size(); i++) {
+            Matricula matricula = new Matricula(alunos.get(i), escolas.get(i % escolas.size()));
+            matricula.id = (long) i + 1;
+            matricula.setDataMatricula(LocalDateTime.of(2025, 1, 15, 10, 0));
+            matricula.setDataInicio(LocalDateTime.of(2025, 2, 1, 0, 0));
+            matricula.setStatus(i % 7 == 0 ? Matricula.StatusMatricula.CANCELADA : Matricula.StatusMatricula.ATIVA);
+            matricula.setDataCriacao(LocalDateTime.of(2025, 1, 15, 10, 0));
+            matriculas.add(matricula);
+        }
+        return matriculas;
+    }
+
+    /**
+     * Linhas no mesmo formato devolvido por {@code EscolaRepository.ranking}.
+     */
+    static List<Map<String, Object>> ranking(int quantidade) {
+        Random random = new Random(42);
+        List<Map<String, Object>> ranking = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int capacidade = 100 + random.nextInt(900);
+            long ativos = random.nextInt(capacidade);
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("escolaId", (long) i + 1);
+            linha.put("escolaNome", "Escola Municipal " + i);
+            linha.put("capacidade", capacidade);
+            linha.put("totalAlunosAtivos", ativos);
+            linha.put("vagasDisponiveis", capacidade - ativos);
+            linha.put("mediaIdadeAlunosAtivos", Math.round((6 + random.nextDouble() * 12) * 100) / 100.0);
+            linha.put("ocupacaoPercentual", Math.round(ativos * 10000.0 / capacidade) / 100.0);
+            ranking.add(linha);
+        }
+        return ranking;
+    }
+
+    static String nome(Random random) {
+        return NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)]
+                + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+    }
+
+    /**
+     * Preenche um campo de configuração de um bean fora do contêiner CDI (os campos {@code @ConfigProperty}
+     * são package-private).
+     */
+    static void configurar(Object bean, String campo, Object valor) {
+        try {
+            Field field = bean.getClass().getDeclaredField(campo);
+            field.setAccessible(true);
+            field.set(bean, valor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível configurar " + campo, e);
+        }
+    }
+
+    /**
+     * Executa o {@code @PostConstruct} de um bean criado fora do contêiner CDI.
+     */
+    static void iniciar(Object bean) {
+        try {
+            Method metodo = bean.getClass().getDeclaredMethod("iniciar");
+            metodo.setAccessible(true);
+            metodo.invoke(bean);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível iniciar " + bean.getClass().getSimpleName(), e);
+        }
+    }
+}
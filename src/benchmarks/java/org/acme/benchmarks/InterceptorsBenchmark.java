@@ -0,0 +1,115 @@
+package org.acme.benchmarks;
+
+import org.acme.auth.ClienteApi;
+import org.acme.auth.RegistroApiKeys;
+import org.acme.cache.CacheDeRespostas;
+import org.acme.ratelimit.ConsumoLimite;
+import org.acme.ratelimit.GrupoLimite;
+import org.acme.ratelimit.LimitadorRequisicoes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabalho que os interceptors fazem em toda requisição da v2, antes de chegar ao recurso: resolver a API key
+ * ({@link RegistroApiKeys}), consumir o token do rate limit ({@link LimitadorRequisicoes}, também com várias
+ * threads disputando o mesmo balde) e consultar o cache de respostas ({@link CacheDeRespostas}).
+ * <p>
+ * Os beans são criados fora do contêiner CDI, com a configuração preenchida no {@code @Setup}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorsBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int chaves;
+
+    private RegistroApiKeys registro;
+    private LimitadorRequisicoes limitador;
+    private CacheDeRespostas cache;
+    private String chaveValida;
+    private ClienteApi cliente;
+
+    @Setup
+    public void preparar() throws NoSuchAlgorithmException {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        List<String> entradas = new ArrayList<>(chaves);
+        for (int i = 0; i < chaves; i++) {
+            String chave = "chave-benchmark-" + i;
+            entradas.add("cliente-" + i + ":" + HexFormat.of().formatHex(sha256.digest(chave.getBytes(StandardCharsets.UTF_8))));
+        }
+        chaveValida = "chave-benchmark-" + (chaves / 2);
+
+        registro = new RegistroApiKeys();
+        DadosBenchmark.configurar(registro, "chaveLegada", Optional.empty());
+        DadosBenchmark.configurar(registro, "chavesConfiguradas", Optional.of(entradas));
+        DadosBenchmark.configurar(registro, "arquivo", Optional.empty());
+        registro.recarregar();
+        cliente = registro.resolver(chaveValida).orElseThrow();
+
+        // Limites altos o bastante para o balde nunca esvaziar durante a medição
+        limitador = new LimitadorRequisicoes();
+        DadosBenchmark.configurar(limitador, "leituraPorMinuto", 1e12);
+        DadosBenchmark.configurar(limitador, "leituraRajada", Long.MAX_VALUE / 2);
+        DadosBenchmark.configurar(limitador, "escritaPorMinuto", 1e12);
+        DadosBenchmark.configurar(limitador, "escritaRajada", Long.MAX_VALUE / 2);
+        DadosBenchmark.configurar(limitador, "relatorioPorMinuto", 1e12);
+        DadosBenchmark.configurar(limitador, "relatorioRajada", Long.MAX_VALUE / 2);
+        DadosBenchmark.configurar(limitador, "ociosidade", Duration.ofMinutes(10));
+        DadosBenchmark.configurar(limitador, "maxBaldes", 100_000L);
+        DadosBenchmark.iniciar(limitador);
+
+        cache = new CacheDeRespostas();
+        DadosBenchmark.configurar(cache, "maxEntradas", 1000);
+        cache.guardar("/v2/relatorios/escolas/ranking?limit=10", 1L, DadosBenchmark.ranking(10));
+    }
+
+    @Benchmark
+    public Optional<ClienteApi> resolverApiKey() {
+        return registro.resolver(chaveValida);
+    }
+
+    @Benchmark
+    public Optional<ClienteApi> resolverApiKeyInvalida() {
+        return registro.resolver("chave-inexistente");
+    }
+
+    @Benchmark
+    public ConsumoLimite consumirRateLimit() {
+        return limitador.consumir(cliente.id(), cliente, GrupoLimite.LEITURA);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ConsumoLimite consumirRateLimitConcorrente() {
+        return limitador.consumir(cliente.id(), cliente, GrupoLimite.LEITURA);
+    }
+
+    @Benchmark
+    public CacheDeRespostas.Entrada buscarRespostaEmCache() {
+        return cache.buscar("/v2/relatorios/escolas/ranking?limit=10", 1L);
+    }
+}
@@ -0,0 +1,88 @@
+package org.acme.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.acme.exceptions.ApiError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das listas devolvidas pelos endpoints de listagem e pelo ranking de escolas, e do corpo
+ * de erro. O {@link ObjectMapper} é configurado como o do Quarkus (módulos registrados, datas em ISO-8601).
+ * <p>
+ * O ranking é agregado no banco; a parte em Java que sobra por requisição é serializar as linhas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int tamanho;
+
+    private ObjectMapper objectMapper;
+    private List<Aluno> alunos;
+    private List<Escola> escolas;
+    private List<Matricula> matriculas;
+    private List<Map<String, Object>> ranking;
+    private ApiError erroDeValidacao;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        alunos = DadosBenchmark.alunos(tamanho);
+        escolas = DadosBenchmark.escolas(Math.max(1, tamanho / 10));
+        matriculas = DadosBenchmark.matriculas(alunos, escolas);
+        ranking = DadosBenchmark.ranking(tamanho);
+
+        erroDeValidacao = new ApiError(400, "Bad Request", "Erro de validação", "/v1/alunos");
+        erroDeValidacao.addValidationError("nome", "O nome é obrigatório");
+        erroDeValidacao.addValidationError("idade", "A idade deve ser positiva");
+    }
+
+    @Benchmark
+    public byte[] alunos() throws Exception {
+        return objectMapper.writeValueAsBytes(alunos);
+    }
+
+    @Benchmark
+    public byte[] escolas() throws Exception {
+        return objectMapper.writeValueAsBytes(escolas);
+    }
+
+    @Benchmark
+    public byte[] matriculas() throws Exception {
+        return objectMapper.writeValueAsBytes(matriculas);
+    }
+
+    @Benchmark
+    public byte[] ranking() throws Exception {
+        return objectMapper.writeValueAsBytes(ranking);
+    }
+
+    @Benchmark
+    public byte[] apiError() throws Exception {
+        return objectMapper.writeValueAsBytes(erroDeValidacao);
+    }
+}
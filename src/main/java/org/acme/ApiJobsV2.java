@@ -0,0 +1,161 @@
+package org.acme;
+
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.acme.DTO.SolicitacaoJobDTO;
+import org.acme.auth.ChamadorApi;
+import org.acme.auth.ClienteApi;
+import org.acme.exceptions.ApiError;
+import org.acme.exceptions.LimiteDeJobsException;
+import org.acme.interceptors.RateLimited;
+import org.acme.jobs.Job;
+import org.acme.jobs.JobService;
+import org.acme.ratelimit.GrupoLimite;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relatórios e exportações assíncronos: o cliente cria o job, acompanha o status (com long-polling opcional)
+ * e baixa o resultado. Fica fora de {@link ApiRoutesV2} para que as consultas de status não consumam o
+ * rate limit dos relatórios: só a criação do job é cobrada no grupo RELATORIO. A concorrência é limitada por
+ * cliente no {@link JobService}.
+ */
+@Path("/v2/jobs")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RateLimited(GrupoLimite.LEITURA)
+@Tag(name = "V2", description = "Nova versão da API com métodos HTTP especializados e lógica de matrícula atualizada")
+public class ApiJobsV2 {
+
+    private static final String TENANT_ANONIMO = "anonimo";
+
+    @Inject
+    JobService jobService;
+
+    @Inject
+    ChamadorApi chamador;
+
+    @ConfigProperty(name = "api.jobs.espera-maxima", defaultValue = "30s")
+    Duration esperaMaxima;
+
+    @POST
+    @RateLimited(GrupoLimite.RELATORIO)
+    @Operation(summary = "Cria um job de relatório/exportação", description = "Enfileira um relatório (RANKING_ESCOLAS, EVASAO_ALUNOS, CRESCIMENTO_ESCOLAS) ou exportação CSV (EXPORT_ALUNOS, EXPORT_ESCOLAS, EXPORT_MATRICULAS) com os mesmos parâmetros do endpoint síncrono. Retorna 202 com o id do job.")
+    public Response criarJob(@Valid SolicitacaoJobDTO solicitacao) {
+        String tenant = tenant().orElse(null);
+        if (tenant == null) {
+            return chaveInvalida("/v2/jobs");
+        }
+        try {
+            Job job = jobService.submeter(tenant, solicitacao.getTipo(), solicitacao.getParametros());
+            return Response.accepted(job)
+                    .location(URI.create("/v2/jobs/" + job.getId()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return erro(Response.Status.BAD_REQUEST, e.getMessage(), "/v2/jobs");
+        } catch (LimiteDeJobsException e) {
+            return erro(Response.Status.TOO_MANY_REQUESTS, e.getMessage(), "/v2/jobs");
+        } catch (RejectedExecutionException e) {
+            return erro(Response.Status.SERVICE_UNAVAILABLE, "Fila de jobs cheia. Tente novamente mais tarde.", "/v2/jobs");
+        }
+    }
+
+    @GET
+    @Path("/{id}")
+    @Operation(summary = "Consulta o status de um job", description = "Retorna o status do job. Com aguardar=N (segundos), a resposta espera até o job terminar ou N segundos se passarem (long-polling).")
+    public CompletionStage<Response> getJob(@PathParam("id") String id,
+                                            @QueryParam("aguardar") Integer aguardar) {
+        String tenant = tenant().orElse(null);
+        if (tenant == null) {
+            return CompletableFuture.completedFuture(chaveInvalida("/v2/jobs/" + id));
+        }
+        Job job = jobService.buscar(tenant, id).orElse(null);
+        if (job == null) {
+            return CompletableFuture.completedFuture(naoEncontrado(id));
+        }
+        if (aguardar == null || aguardar <= 0 || job.getStatus().isFinal()) {
+            return CompletableFuture.completedFuture(Response.ok(job).build());
+        }
+        long espera = Math.min(TimeUnit.SECONDS.toMillis(aguardar), esperaMaxima.toMillis());
+        // Sem bloquear a thread: a resposta sai quando o job termina ou o tempo se esgota
+        return job.getTermino().copy()
+                .completeOnTimeout(job, espera, TimeUnit.MILLISECONDS)
+                .thenApply(j -> Response.ok(j).build());
+    }
+
+    @GET
+    @Path("/{id}/resultado")
+    @Produces({"text/csv", MediaType.APPLICATION_JSON})
+    @Operation(summary = "Baixa o resultado de um job", description = "Retorna o arquivo gerado pelo job (JSON ou CSV). Responde 409 se o job ainda não foi concluído.")
+    public Response getResultado(@PathParam("id") String id) {
+        String tenant = tenant().orElse(null);
+        if (tenant == null) {
+            return chaveInvalida("/v2/jobs/" + id + "/resultado");
+        }
+        Job job = jobService.buscar(tenant, id).orElse(null);
+        if (job == null) {
+            return naoEncontrado(id);
+        }
+        java.nio.file.Path arquivo = job.getArquivo();
+        if (job.getStatus() != Job.Status.CONCLUIDO || arquivo == null) {
+            return erro(Response.Status.CONFLICT, "O job está " + job.getStatus() + "; o resultado só fica disponível após a conclusão.",
+                    "/v2/jobs/" + id + "/resultado");
+        }
+        StreamingOutput stream = output -> Files.copy(arquivo, output);
+        return Response.ok(stream, job.getTipo().getContentType())
+                .header("Content-Disposition", "attachment; filename=" + job.getTipo().name().toLowerCase()
+                        + "_" + job.getId() + job.getTipo().getExtensao())
+                .build();
+    }
+
+    @DELETE
+    @Path("/{id}")
+    @Operation(summary = "Cancela um job", description = "Cancela um job pendente ou em execução. Jobs já finalizados não são alterados.")
+    public Response cancelarJob(@PathParam("id") String id) {
+        String tenant = tenant().orElse(null);
+        if (tenant == null) {
+            return chaveInvalida("/v2/jobs/" + id);
+        }
+        return jobService.cancelar(tenant, id)
+                .map(job -> Response.ok(job).build())
+                .orElseGet(() -> naoEncontrado(id));
+    }
+
+    // Os jobs ficam isolados pelo id do cliente dono da API key (a chave em si nunca é guardada); sem chave, vão
+    // para o tenant anônimo. Vazio se a chave enviada não estiver registrada.
+    private Optional<String> tenant() {
+        if (!chamador.informouChave()) {
+            return Optional.of(TENANT_ANONIMO);
+        }
+        return chamador.cliente().map(ClienteApi::id).map(id -> "cliente:" + id);
+    }
+
+    private static Response chaveInvalida(String path) {
+        return erro(Response.Status.FORBIDDEN, "API Key inválida", path);
+    }
+
+    private static Response naoEncontrado(String id) {
+        return erro(Response.Status.NOT_FOUND, "Job não encontrado", "/v2/jobs/" + id);
+    }
+
+    private static Response erro(Response.Status status, String mensagem, String path) {
+        return Response.status(status)
+                .entity(new ApiError(status.getStatusCode(), status.getReasonPhrase(), mensagem, path))
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+}
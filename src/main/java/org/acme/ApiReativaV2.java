@@ -0,0 +1,97 @@
+package org.acme;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.acme.exceptions.ApiError;
+import org.acme.interceptors.RateLimited;
+import org.acme.ratelimit.GrupoLimite;
+import org.acme.reativo.LeiturasReativas;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+/**
+ * Variante não bloqueante das leituras mais acessadas: os métodos rodam na thread de I/O e devolvem
+ * {@link Uni}/{@link Multi}; o acesso ao banco fica em {@link LeiturasReativas}.
+ */
+@Path("/v2/reativo")
+@RateLimited(GrupoLimite.LEITURA)
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "V2", description = "Nova versão da API com métodos HTTP especializados e lógica de matrícula atualizada")
+public class ApiReativaV2 {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    LeiturasReativas leituras;
+
+    @GET
+    @Path("/escolas/{id}/ocupacao")
+    @Operation(summary = "Relatório de ocupação (reativo)", description = "Mesmo resultado de /v1/escolas/{id}/ocupacao, sem bloquear a thread de I/O.")
+    public Uni<Response> getOcupacaoEscola(@PathParam("id") Long id) {
+        return leituras.ocupacao(id)
+                .map(ocupacao -> ocupacao == null
+                        ? naoEncontrado("Escola não encontrada", "/v2/reativo/escolas/" + id + "/ocupacao")
+                        : Response.ok(ocupacao).build());
+    }
+
+    @GET
+    @Path("/alunos/{id}/matriculas")
+    @Operation(summary = "Lista matrículas de um aluno (reativo)", description = "Mesmo resultado de /v1/alunos/{id}/matriculas, sem bloquear a thread de I/O.")
+    public Uni<Response> getMatriculasPorAluno(@PathParam("id") Long id) {
+        return leituras.matriculasDoAluno(id)
+                .map(matriculas -> matriculas == null
+                        ? naoEncontrado("Aluno não encontrado", "/v2/reativo/alunos/" + id + "/matriculas")
+                        : Response.ok(matriculas).build());
+    }
+
+    @HEAD
+    @Path("/alunos/{id}")
+    @Operation(summary = "Verifica existência do aluno (reativo)", description = "Verifica se um aluno existe sem retornar seus dados.")
+    public Uni<Response> checkAlunoExists(@PathParam("id") Long id) {
+        return leituras.alunoExiste(id).map(ApiReativaV2::existencia);
+    }
+
+    @HEAD
+    @Path("/escolas/{id}")
+    @Operation(summary = "Verifica existência da escola (reativo)", description = "Verifica se uma escola existe sem retornar seus dados.")
+    public Uni<Response> checkEscolaExists(@PathParam("id") Long id) {
+        return leituras.escolaExiste(id).map(ApiReativaV2::existencia);
+    }
+
+    @GET
+    @Path("/escolas")
+    @Produces(NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @RateLimited(GrupoLimite.RELATORIO)
+    @Operation(summary = "Transmite todas as escolas", description = "Uma escola por linha (NDJSON), lidas em páginas conforme o cliente consome a resposta.")
+    public Multi<Escola> streamEscolas() {
+        return leituras.escolas();
+    }
+
+    @GET
+    @Path("/matriculas")
+    @Produces(NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @RateLimited(GrupoLimite.RELATORIO)
+    @Operation(summary = "Transmite todas as matrículas", description = "Uma matrícula por linha (NDJSON), com aluno e escola, lidas em páginas conforme o cliente consome a resposta.")
+    public Multi<Matricula> streamMatriculas() {
+        return leituras.matriculas();
+    }
+
+    private static Response existencia(boolean existe) {
+        return Response.status(existe ? Response.Status.OK : Response.Status.NOT_FOUND).build();
+    }
+
+    private static Response naoEncontrado(String mensagem, String path) {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ApiError(404, "Not Found", mensagem, path))
+                .build();
+    }
+}
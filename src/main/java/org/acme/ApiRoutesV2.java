@@ -1,50 +1,57 @@
 package org.acme;
 
-import io.smallrye.faulttolerance.api.RateLimit;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 import org.acme.DTO.InsertAlunoDTO;
 import org.acme.DTO.InsertEscolaDTO;
 import org.acme.DTO.InsertMatriculaDTO;
 import org.acme.DTO.UpdateAlunoStatusDTO;
 import org.acme.DTO.UpdateMatriculaStatusDTO;
+import org.acme.cache.EstatisticasCache;
 import org.acme.controllers.v1.AlunoController;
 import org.acme.controllers.v1.EscolaController;
 import org.acme.controllers.v1.MatriculaController;
-import org.acme.entities.Aluno;
-import org.acme.entities.Escola;
+import org.acme.controllers.v1.Paginacao;
 import org.acme.entities.Matricula;
 import org.acme.exceptions.ApiError; // Importar ApiError
+import org.acme.export.CsvExportService;
 import org.acme.interceptors.ApiKey;
+import org.acme.interceptors.CachedResponse;
 import org.acme.interceptors.Idempotent;
-import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.acme.interceptors.QueryBudget;
+import org.acme.interceptors.RateLimited;
+import org.acme.ratelimit.GrupoLimite;
+import org.acme.repositories.EscolaRepository;
+import org.acme.repositories.MatriculaRepository;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeIn;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeType;
 import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
-import java.io.BufferedWriter;
-import java.io.OutputStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.HashMap;
 
 @Path("/v2")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @ApplicationScoped
-@RateLimit(value = 3, minSpacingUnit = ChronoUnit.SECONDS, minSpacing = 5)
+@RateLimited(GrupoLimite.LEITURA)
+@QueryBudget
 @SecurityScheme(securitySchemeName = "apiKey", type = SecuritySchemeType.APIKEY, apiKeyName = "X-API-Key", in = SecuritySchemeIn.HEADER)
 @Tag(name = "V2", description = "Nova versão da API com métodos HTTP especializados e lógica de matrícula atualizada")
 
@@ -59,20 +66,34 @@ public class ApiRoutesV2 {
     @Inject
     MatriculaController matriculaController;
 
-    @Fallback
-    public String fallback() {
-        return "{\"erro\":\"Taxa de requisições excedida. Tente novamente mais tarde.\"}";
-    }
+    @Inject
+    EscolaRepository escolaRepository;
+
+    @Inject
+    MatriculaRepository matriculaRepository;
+
+    @Inject
+    Paginacao paginacao;
+
+    @Inject
+    CsvExportService csvExportService;
+
+    @Inject
+    EstatisticasCache estatisticasCache;
 
     @GET
     @Path("/alunos")
-    @Operation(summary = "Lista todos os alunos", description = "Retorna uma lista de todos os alunos cadastrados.")
-    public Response getAllAlunos() {
-        return alunoController.getAllAlunos();
+    @QueryBudget(entidades = 500) // api.paginacao.limite-maximo
+    @Operation(summary = "Lista todos os alunos", description = "Retorna uma página de alunos (paginação por cursor via limit/after).")
+    public Response getAllAlunos(@QueryParam("limit") Integer limit,
+                                 @QueryParam("after") String after,
+                                 @Context UriInfo uriInfo) {
+        return alunoController.getAllAlunos(limit, after, uriInfo);
     }
 
     @POST
     @Path("/alunos")
+    @RateLimited(GrupoLimite.ESCRITA)
     @Transactional
     @Idempotent
     @Operation(summary = "Adiciona um aluno", description = "Adiciona um novo aluno ao sistema.")
@@ -82,6 +103,7 @@ public class ApiRoutesV2 {
 
     @PATCH
     @Path("/alunos/{id}/status")
+    @RateLimited(GrupoLimite.ESCRITA)
     @Transactional
     @Operation(summary = "Atualiza status do aluno", description = "Atualiza apenas o status do aluno (ativo/inativo).")
     public Response updateAlunoStatus(@PathParam("id") Long id, UpdateAlunoStatusDTO status) {
@@ -99,13 +121,17 @@ public class ApiRoutesV2 {
     // Métodos para Escolas
     @GET
     @Path("/escolas")
-    @Operation(summary = "Lista todas as escolas", description = "Retorna uma lista de todas as escolas cadastradas.")
-    public Response getAllEscolas() {
-        return escolaController.getAllEscolas();
+    @QueryBudget(entidades = 500)
+    @Operation(summary = "Lista todas as escolas", description = "Retorna uma página de escolas (paginação por cursor via limit/after).")
+    public Response getAllEscolas(@QueryParam("limit") Integer limit,
+                                  @QueryParam("after") String after,
+                                  @Context UriInfo uriInfo) {
+        return escolaController.getAllEscolas(limit, after, uriInfo);
     }
 
     @POST
     @Path("/escolas")
+    @RateLimited(GrupoLimite.ESCRITA)
     @Idempotent
     @Transactional
     @Operation(summary = "Adiciona uma escola", description = "Adiciona uma nova escola ao sistema.")
@@ -123,6 +149,7 @@ public class ApiRoutesV2 {
 
     @PATCH
     @Path("/escolas/{id}/capacidade")
+    @RateLimited(GrupoLimite.ESCRITA)
 
     @Transactional
     @Operation(summary = "Atualiza capacidade da escola", description = "Atualiza a capacidade máxima de uma escola existente. Não permite reduzir a capacidade abaixo do número de alunos matriculados ativos.")
@@ -133,14 +160,18 @@ public class ApiRoutesV2 {
     // Métodos para Matrículas
     @GET
     @Path("/matriculas")
-    @Operation(summary = "Lista todas as matrículas", description = "Retorna uma lista de todas as matrículas cadastradas.")
-    public Response getAllMatriculas() {
-        return matriculaController.getAllMatriculas();
+    @QueryBudget(entidades = 1500)
+    @Operation(summary = "Lista todas as matrículas", description = "Retorna uma página de matrículas (paginação por cursor via limit/after).")
+    public Response getAllMatriculas(@QueryParam("limit") Integer limit,
+                                     @QueryParam("after") String after,
+                                     @Context UriInfo uriInfo) {
+        return matriculaController.getAllMatriculas(limit, after, uriInfo);
     }
 
     @POST
     @Transactional
     @Path("/matriculas")
+    @RateLimited(GrupoLimite.ESCRITA)
     @Idempotent
     @Operation(summary = "Adiciona uma matrícula", description = "Adiciona uma nova matrícula ao sistema, validando vagas disponíveis na escola e o status do aluno/escola.")
     public Response addMatricula(InsertMatriculaDTO item) {
@@ -153,6 +184,7 @@ public class ApiRoutesV2 {
     @PATCH
     @Transactional
     @Path("/matriculas/{id}/status")
+    @RateLimited(GrupoLimite.ESCRITA)
     @Operation(summary = "Atualiza status da matrícula", description = "Atualiza o status da matrícula (ATIVA, CANCELADA).")
     public Response updateMatriculaStatus(@PathParam("id") Long id, UpdateMatriculaStatusDTO status) {
         return matriculaController.updateMatriculaStatus(id, status);
@@ -169,6 +201,7 @@ public class ApiRoutesV2 {
 
     @GET
     @Path("/relatorios/alunos/idade-media")
+    @RateLimited(GrupoLimite.RELATORIO)
     @Operation(summary = "Média de idade", description = "Retorna a média de idade dos alunos por escola (baseado em matrículas ativas).")
     public Response getMediaIdadeAlunos() {
         // A lógica para calcular a média de idade por escola, considerando matrículas ativas,
@@ -185,8 +218,6 @@ public class ApiRoutesV2 {
                                  @QueryParam("idadeMin") Integer idadeMin,
                                  @QueryParam("idadeMax") Integer idadeMax,
                                  @QueryParam("escola") Long escolaId) {
-        // O AlunoController.searchAlunos precisará ser ajustado para filtrar alunos
-        // que tenham uma MATRICULA ATIVA na escola especificada, se o parâmetro escolaId for usado.
         return alunoController.searchAlunos(nome, idadeMin, idadeMax, escolaId);
     }
 
@@ -194,14 +225,28 @@ public class ApiRoutesV2 {
     @POST
     @Transactional
     @Path("/alunos/lote")
+    @RateLimited(GrupoLimite.ESCRITA)
+    @QueryBudget(comandos = QueryBudget.SEM_LIMITE)
     @Operation(summary = "Adiciona alunos em lote", description = "Adiciona múltiplos alunos de uma vez.")
     public Response addAlunosLote(List<InsertAlunoDTO> alunos) {
         return alunoController.addAlunosLote(alunos);
     }
 
+    @POST
+    @Path("/alunos/importacao")
+    @RateLimited(GrupoLimite.RELATORIO)
+    @Consumes({"application/x-ndjson", "text/csv"})
+    @QueryBudget(comandos = QueryBudget.SEM_LIMITE, entidades = QueryBudget.SEM_LIMITE)
+    @Operation(summary = "Importa alunos em massa", description = "Importa alunos a partir de NDJSON ou CSV com cabeçalho, gravando em lotes e retornando um relatório de erros por linha.")
+    public Response importarAlunos(@HeaderParam(HttpHeaders.CONTENT_TYPE) MediaType tipo, InputStream corpo) throws IOException {
+        return alunoController.importarAlunos(tipo, corpo);
+    }
+
     @PATCH
     @Transactional
     @Path("/matriculas/lote/status")
+    @RateLimited(GrupoLimite.ESCRITA)
+    @QueryBudget(comandos = 50, entidades = QueryBudget.SEM_LIMITE)
     @Operation(summary = "Atualiza status em lote", description = "Atualiza o status de múltiplas matrículas de uma vez. Validações de capacidade da escola e status de aluno/escola são aplicadas.")
     public Response updateMatriculasStatusLote(@QueryParam("ids") List<Long> ids, UpdateMatriculaStatusDTO status) {
         return matriculaController.updateMatriculasStatusLote(ids, status);
@@ -211,37 +256,11 @@ public class ApiRoutesV2 {
 
     @GET
     @Path("/export/alunos/csv")
+    @RateLimited(GrupoLimite.RELATORIO)
     @Produces("text/csv")
     @Operation(summary = "Exporta alunos para CSV", description = "Exporta a lista de alunos em formato CSV.")
     public Response exportAlunosToCsv() {
-        Response response = alunoController.getAllAlunos();
-        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
-            return response;
-        }
-
-        List<Aluno> alunos = (List<Aluno>) response.getEntity();
-
-        StreamingOutput stream = output -> {
-            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output))) {
-                writer.write("ID,Nome,Idade,Data Nascimento,Nome Responsavel,Telefone Responsavel,Email Responsavel,Endereco,Observacoes,Ativo\n");
-
-                for (Aluno aluno : alunos) {
-                    writer.write(String.format("%s,%s,%d,%s,%s,%s,%s,%s,%s,%b\n",
-                            aluno.id != null ? aluno.id.toString() : "", // PanacheEntity.id pode ser nulo se não persistido ainda
-                            aluno.getNome(),
-                            aluno.getIdade(),
-                            aluno.getDataNascimento() != null ? aluno.getDataNascimento().format(DateTimeFormatter.ISO_LOCAL_DATE) : "",
-                            aluno.getNomeResponsavel(),
-                            aluno.getTelefoneResponsavel(),
-                            aluno.getEmailResponsavel(),
-                            aluno.getEndereco(),
-                            aluno.getObservacoes(),
-                            aluno.getAtivo()
-                    ));
-                }
-                writer.flush();
-            }
-        };
+        StreamingOutput stream = csvExportService::exportarAlunos;
 
         return Response.ok(stream)
                 .header("Content-Disposition", "attachment; filename=alunos_" + LocalDate.now() + ".csv")
@@ -250,34 +269,11 @@ public class ApiRoutesV2 {
 
     @GET
     @Path("/export/escolas/csv")
+    @RateLimited(GrupoLimite.RELATORIO)
     @Produces("text/csv")
     @Operation(summary = "Exporta escolas para CSV", description = "Exporta a lista de escolas em formato CSV.")
     public Response exportEscolasToCsv() {
-        Response response = escolaController.getAllEscolas();
-        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
-            return response;
-        }
-
-        List<Escola> escolas = (List<Escola>) response.getEntity();
-
-        StreamingOutput stream = output -> {
-            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output))) {
-                writer.write("ID,Nome,Capacidade,Endereco,Telefone,Email,Diretor,Ativo\n");
-                for (Escola escola : escolas) {
-                    writer.write(String.format("%s,%s,%d,%s,%s,%s,%s,%b\n",
-                            escola.id != null ? escola.id.toString() : "", // PanacheEntity.id
-                            escola.getNome(),
-                            escola.getCapacidade(),
-                            escola.getEndereco(),
-                            escola.getTelefone(),
-                            escola.getEmail(),
-                            escola.getDiretor(),
-                            escola.getAtivo()
-                    ));
-                }
-                writer.flush();
-            }
-        };
+        StreamingOutput stream = csvExportService::exportarEscolas;
 
         return Response.ok(stream)
                 .header("Content-Disposition", "attachment; filename=escolas_" + LocalDate.now() + ".csv")
@@ -285,69 +281,81 @@ public class ApiRoutesV2 {
     }
 
     @GET
-    @Path("/relatorios/escolas/ranking")
-    @Operation(summary = "Ranking de escolas", description = "Retorna um ranking das escolas por ocupação (matrículas ativas) e média de idade dos alunos.")
-    public Response getEscolasRanking() {
-        Response escolasResponse = escolaController.getAllEscolas(); // Obtém todas as escolas
-        if (escolasResponse.getStatus() != Response.Status.OK.getStatusCode()) {
-            return escolasResponse;
+    @Path("/export/matriculas/csv")
+    @RateLimited(GrupoLimite.RELATORIO)
+    @Produces("text/csv")
+    @Operation(summary = "Exporta matrículas para CSV", description = "Exporta as matrículas com nome do aluno e da escola em formato CSV. Filtros opcionais: status e período (dataInicio/dataFim, YYYY-MM-DD) aplicado à data de início da matrícula.")
+    public Response exportMatriculasToCsv(
+            @QueryParam("status") String status,
+            @QueryParam("dataInicio") String dataInicio,
+            @QueryParam("dataFim") String dataFim) {
+
+        Matricula.StatusMatricula statusFiltro = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                statusFiltro = Matricula.StatusMatricula.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ApiError(400, "Bad Request", "Status inválido: " + status + ".", "/v2/export/matriculas/csv"))
+                        .type(MediaType.APPLICATION_JSON)
+                        .build();
+            }
         }
-        List<Escola> escolas = (List<Escola>) escolasResponse.getEntity();
 
-        Response matriculasResponse = matriculaController.getAllMatriculas();
-        if (matriculasResponse.getStatus() != Response.Status.OK.getStatusCode()) {
-            return matriculasResponse;
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            inicio = dataInicio != null ? LocalDate.parse(dataInicio, DateTimeFormatter.ISO_LOCAL_DATE) : null;
+            fim = dataFim != null ? LocalDate.parse(dataFim, DateTimeFormatter.ISO_LOCAL_DATE) : null;
+        } catch (java.time.format.DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "Formato de data inválido. Use o formato YYYY-MM-DD (ISO_LOCAL_DATE).", "/v2/export/matriculas/csv"))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
         }
-        List<Matricula> todasMatriculas = (List<Matricula>) matriculasResponse.getEntity();
-
-
-        List<Map<String, Object>> ranking = escolas.stream()
-                .map(escola -> {
-                    // Filtrar matrículas ativas para a escola atual
-                    List<Matricula> matriculasAtivasDaEscola = todasMatriculas.stream()
-                            .filter(m -> m.getEscola() != null && m.getEscola().id.equals(escola.id) &&
-                                    m.getStatus() == Matricula.StatusMatricula.ATIVA)
-                            .toList();
-
-                    long totalAlunosAtivos = matriculasAtivasDaEscola.size();
-
-                    Double ocupacao = (escola.getCapacidade() > 0) ? (totalAlunosAtivos / (double) escola.getCapacidade() * 100) : 0.0;
-
-                    Double mediaIdade = matriculasAtivasDaEscola.stream()
-                            .filter(m -> m.getAluno() != null)
-                            .map(Matricula::getAluno)
-                            .filter(obj -> true)
-                            .mapToInt(Aluno::getIdade)
-                            .average()
-                            .orElse(0.0);
-
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("escolaId", escola.id != null ? escola.id.toString() : "");
-                    map.put("escolaNome", escola.getNome());
-                    map.put("ocupacaoPercentual", String.format("%.2f%%", ocupacao)); // Formata como porcentagem
-                    map.put("mediaIdadeAlunosAtivos", String.format("%.2f", mediaIdade)); // Formata com 2 casas decimais
-                    map.put("totalAlunosAtivos", totalAlunosAtivos);
-                    map.put("capacidade", escola.getCapacidade());
-                    map.put("vagasDisponiveis", escola.getCapacidade() - totalAlunosAtivos);
-                    return map;
-                })
-                .sorted((a, b) -> {
-                    // Para ordenar por ocupação, precisamos extrair o valor numérico antes do '%'
-                    Double ocupacaoA = Double.parseDouble(((String) a.get("ocupacaoPercentual")).replace("%", ""));
-                    Double ocupacaoB = Double.parseDouble(((String) b.get("ocupacaoPercentual")).replace("%", ""));
-                    return Double.compare(ocupacaoB, ocupacaoA); // Ordem decrescente de ocupação
-                })
-                .collect(Collectors.toList());
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "dataInicio não pode ser posterior a dataFim.", "/v2/export/matriculas/csv"))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+
+        // Faixa semiaberta [inicio, fim + 1 dia), como nos relatórios
+        LocalDateTime inicioPeriodo = inicio != null ? inicio.atStartOfDay() : null;
+        LocalDateTime fimPeriodo = fim != null ? fim.plusDays(1).atStartOfDay() : null;
+        Matricula.StatusMatricula filtro = statusFiltro;
+        StreamingOutput stream = output -> csvExportService.exportarMatriculas(output, inicioPeriodo, fimPeriodo, filtro);
+
+        return Response.ok(stream)
+                .header("Content-Disposition", "attachment; filename=matriculas_" + LocalDate.now() + ".csv")
+                .build();
+    }
 
+    @GET
+    @Path("/relatorios/escolas/ranking")
+    @RateLimited(GrupoLimite.RELATORIO)
+    @CachedResponse
+    @Operation(summary = "Ranking de escolas", description = "Retorna um ranking das escolas por ocupação (matrículas ativas) e média de idade dos alunos. O parâmetro limit restringe o resultado ao top-N.")
+    public Response getEscolasRanking(@QueryParam("limit") Integer limit) {
+        if (limit != null && limit < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "O parâmetro limit deve ser maior que zero.", "/v2/relatorios/escolas/ranking"))
+                    .build();
+        }
+        List<Map<String, Object>> ranking = escolaRepository.ranking(limit);
         return Response.ok(ranking).build();
     }
 
     @GET
     @Path("/relatorios/alunos/evasao")
-    @Operation(summary = "Relatório de evasão", description = "Retorna estatísticas sobre evasão escolar (matrículas canceladas) por período.")
+    @RateLimited(GrupoLimite.RELATORIO)
+    @Operation(summary = "Relatório de evasão", description = "Retorna as matrículas canceladas com data de fim no período, paginadas por cursor (limit/after).")
     public Response getRelatorioEvasao(
             @QueryParam("dataInicio") String dataInicio,
-            @QueryParam("dataFim") String dataFim) {
+            @QueryParam("dataFim") String dataFim,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("after") String after,
+            @Context UriInfo uriInfo) {
 
         try {
             if (dataInicio == null || dataFim == null) {
@@ -365,37 +373,13 @@ public class ApiRoutesV2 {
                         .build();
             }
 
-            Response matriculasResponse = matriculaController.getAllMatriculas();
-            if (matriculasResponse.getStatus() != Response.Status.OK.getStatusCode()) {
-                return matriculasResponse;
-            }
-
-            List<Matricula> matriculas = (List<Matricula>) matriculasResponse.getEntity();
-            List<Map<String, Object>> evasao = matriculas.stream()
-                    .filter(m -> m.getDataFim() != null &&
-                            m.getStatus() == Matricula.StatusMatricula.CANCELADA &&
-                            !m.getDataFim().toLocalDate().isBefore(inicio) && // dataFim >= inicio
-                            !m.getDataFim().toLocalDate().isAfter(fim))      // dataFim <= fim
-                    .map(m -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("matriculaId", m.id != null ? m.id.toString() : "");
-                        if (m.getAluno() != null) {
-                            map.put("alunoId", m.getAluno().id != null ? m.getAluno().id.toString() : "");
-                            map.put("alunoNome", m.getAluno().getNome());
-                        }
-                        if (m.getEscola() != null) {
-                            map.put("escolaId", m.getEscola().id != null ? m.getEscola().id.toString() : "");
-                            map.put("escolaNome", m.getEscola().getNome());
-                        }
-                        map.put("dataInicioMatricula", m.getDataInicio() != null ? m.getDataInicio().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
-                        map.put("dataFimMatricula", m.getDataFim() != null ? m.getDataFim().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
-                        map.put("statusMatricula", m.getStatus().toString());
-                        map.put("observacoes", m.getObservacoes()); // Usando "observacoes" para o que seria o motivo da evasão
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-
-            return Response.ok(evasao).build();
+            // Faixa semiaberta [inicio, fim + 1 dia) para que o filtro use o índice sobre data_fim
+            LocalDateTime inicioPeriodo = inicio.atStartOfDay();
+            LocalDateTime fimPeriodo = fim.plusDays(1).atStartOfDay();
+            return paginacao.listar(
+                    (aposId, limite) -> matriculaRepository.listEvasao(inicioPeriodo, fimPeriodo, aposId, limite),
+                    m -> (Long) m.get("matriculaId"),
+                    limit, after, uriInfo);
         } catch (java.time.format.DateTimeParseException e) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity(new ApiError(400, "Bad Request", "Formato de data inválido. Use o formato YYYY-MM-DD (ISO_LOCAL_DATE).", "/v2/relatorios/alunos/evasao"))
@@ -410,6 +394,7 @@ public class ApiRoutesV2 {
 
     @GET
     @Path("/relatorios/escolas/crescimento")
+    @RateLimited(GrupoLimite.RELATORIO)
     @Operation(summary = "Relatório de crescimento", description = "Retorna estatísticas de crescimento das escolas (novas matrículas ativas) por período.")
     public Response getRelatorioCrescimento(
             @QueryParam("dataInicio") String dataInicio,
@@ -431,49 +416,11 @@ public class ApiRoutesV2 {
                         .build();
             }
 
-            Response escolasResponse = escolaController.getAllEscolas();
-            if (escolasResponse.getStatus() != Response.Status.OK.getStatusCode()) {
-                return escolasResponse;
-            }
-            List<Escola> escolas = (List<Escola>) escolasResponse.getEntity();
-
-            Response matriculasResponse = matriculaController.getAllMatriculas();
-            if (matriculasResponse.getStatus() != Response.Status.OK.getStatusCode()) {
-                return matriculasResponse;
+            List<Map<String, Object>> crescimento = escolaRepository.crescimento(inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay());
+            for (Map<String, Object> linha : crescimento) {
+                linha.put("periodoInicio", inicio.toString());
+                linha.put("periodoFim", fim.toString());
             }
-            List<Matricula> todasMatriculas = (List<Matricula>) matriculasResponse.getEntity();
-
-
-            List<Map<String, Object>> crescimento = escolas.stream()
-                    .map(escola -> {
-                        long matriculasNovasNoPeriodo = todasMatriculas.stream()
-                                .filter(m -> m.getEscola() != null && m.getEscola().id.equals(escola.id) &&
-                                        m.getStatus() == Matricula.StatusMatricula.ATIVA &&
-                                        m.getDataInicio() != null &&
-                                        !m.getDataInicio().toLocalDate().isBefore(inicio) && // dataInicio >= inicio
-                                        !m.getDataInicio().toLocalDate().isAfter(fim))      // dataInicio <= fim
-                                .count();
-
-                        long totalAlunosAtivosAtualmente = todasMatriculas.stream()
-                                .filter(m -> m.getEscola() != null && m.getEscola().id.equals(escola.id) &&
-                                        m.getStatus() == Matricula.StatusMatricula.ATIVA)
-                                .count();
-
-                        double crescimentoPercentual = (escola.getCapacidade() > 0) ?
-                                ((double) matriculasNovasNoPeriodo / escola.getCapacidade() * 100) : 0.0;
-
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("escolaId", escola.id != null ? escola.id.toString() : "");
-                        map.put("escolaNome", escola.getNome());
-                        map.put("matriculasNovasNoPeriodo", matriculasNovasNoPeriodo);
-                        map.put("totalAlunosAtivosAtualmente", totalAlunosAtivosAtualmente);
-                        map.put("capacidade", escola.getCapacidade());
-                        map.put("crescimentoPercentualSobreCapacidade", String.format("%.2f%%", crescimentoPercentual));
-                        map.put("periodoInicio", inicio.toString());
-                        map.put("periodoFim", fim.toString());
-                        return map;
-                    })
-                    .collect(Collectors.toList());
 
             return Response.ok(crescimento).build();
         } catch (java.time.format.DateTimeParseException e) {
@@ -487,4 +434,11 @@ public class ApiRoutesV2 {
                     .build();
         }
     }
-}
\ No newline at end of file
+
+    @GET
+    @Path("/cache/estatisticas")
+    @Operation(summary = "Estatísticas do cache", description = "Acertos, falhas, inserções e elementos por região do cache de segundo nível (escolas, alunos e busca de alunos).")
+    public Response getEstatisticasCache() {
+        return Response.ok(estatisticasCache.estatisticas()).build();
+    }
+}
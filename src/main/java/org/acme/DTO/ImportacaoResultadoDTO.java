@@ -0,0 +1,35 @@
+package org.acme.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório de uma importação em massa: totais e os erros por linha da entrada.
+ * A lista de erros é limitada a {@code api.importacao.max-erros} itens; {@code rejeitados} conta todos.
+ */
+@Data
+@NoArgsConstructor
+public class ImportacaoResultadoDTO {
+
+    private long processados;
+
+    private long importados;
+
+    private long rejeitados;
+
+    private List<ErroLinha> erros = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErroLinha {
+
+        private int linha;
+
+        private List<String> mensagens;
+    }
+}
@@ -0,0 +1,52 @@
+package org.acme.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de resultados paginada por keyset (id > cursor, ordenado por id).
+ * O cursor é opaco para o cliente: basta repassar {@code proximoCursor} no parâmetro {@code after}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private static final String PREFIXO_CURSOR = "id:";
+
+    private List<T> itens;
+
+    private int limite;
+
+    private String proximoCursor;
+
+    private String proximo;
+
+    public static String encodeCursor(Long ultimoId) {
+        String raw = PREFIXO_CURSOR + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o cursor recebido em {@code after}. Retorna {@code null} quando não informado.
+     *
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!raw.startsWith(PREFIXO_CURSOR)) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        return Long.parseLong(raw.substring(PREFIXO_CURSOR.length()));
+    }
+}
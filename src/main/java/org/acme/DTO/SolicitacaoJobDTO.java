@@ -0,0 +1,25 @@
+package org.acme.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.acme.jobs.TipoJob;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoJobDTO {
+
+    @NotNull(message = "O tipo do job é obrigatório")
+    private TipoJob tipo;
+
+    // Mesmos parâmetros de query do endpoint síncrono equivalente (ex.: dataInicio, dataFim, limit, status)
+    @Builder.Default
+    private Map<String, String> parametros = new HashMap<>();
+}
@@ -0,0 +1,38 @@
+package org.acme.acesso;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Mede cada requisição REST e a entrega ao {@link LogDeAcesso}. Roda antes do roteamento, para que 404 e
+ * respostas de interceptors (401, 429) também sejam registrados.
+ */
+@Provider
+@PreMatching
+@Priority(1)
+public class FiltroLogDeAcesso implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String INICIO = FiltroLogDeAcesso.class.getName() + ".inicio";
+
+    @Inject
+    LogDeAcesso logDeAcesso;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        request.setProperty(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (request.getProperty(INICIO) instanceof Long inicio) {
+            logDeAcesso.registrar(request.getMethod(), request.getUriInfo().getPath(), response.getStatus(),
+                    System.nanoTime() - inicio);
+        }
+    }
+}
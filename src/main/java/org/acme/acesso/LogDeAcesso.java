@@ -0,0 +1,140 @@
+package org.acme.acesso;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log de acesso em JSON (uma linha por requisição), gravado por uma thread própria.
+ * <p>
+ * A requisição só monta um registro com os campos já conhecidos e o coloca num buffer de tamanho fixo;
+ * a formatação e a escrita acontecem fora dela. Com o buffer cheio o registro é descartado (e contado em
+ * {@code api.log-acesso.descartados}) em vez de segurar a resposta. Requisições lentas e erros 5xx são sempre
+ * registrados; as demais, na proporção de {@code api.log-acesso.amostragem}.
+ */
+@ApplicationScoped
+public class LogDeAcesso {
+
+    private static final int LOTE = 256;
+
+    @ConfigProperty(name = "api.log-acesso.habilitado", defaultValue = "true")
+    boolean habilitado;
+
+    @ConfigProperty(name = "api.log-acesso.amostragem", defaultValue = "1.0")
+    double amostragem;
+
+    @ConfigProperty(name = "api.log-acesso.lento", defaultValue = "500ms")
+    Duration limiteLento;
+
+    @ConfigProperty(name = "api.log-acesso.buffer", defaultValue = "8192")
+    int tamanhoBuffer;
+
+    @Inject
+    MeterRegistry registry;
+
+    record Acesso(long instante, String metodo, String caminho, int status, long duracaoNanos, boolean lento) {
+    }
+
+    private BlockingQueue<Acesso> buffer;
+    private Counter descartados;
+    private long limiteLentoNanos;
+    private Thread escritor;
+
+    @PostConstruct
+    void iniciar() {
+        buffer = new ArrayBlockingQueue<>(tamanhoBuffer);
+        limiteLentoNanos = limiteLento.toNanos();
+        descartados = Counter.builder("api.log-acesso.descartados")
+                .description("Registros do log de acesso descartados com o buffer cheio")
+                .register(registry);
+        escritor = Thread.ofPlatform().name("log-acesso").daemon().start(this::escrever);
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        escritor.interrupt();
+        escritor.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void registrar(String metodo, String caminho, int status, long duracaoNanos) {
+        if (!habilitado) {
+            return;
+        }
+        boolean lento = duracaoNanos >= limiteLentoNanos;
+        if (!lento && status < 500 && amostragem < 1.0 && ThreadLocalRandom.current().nextDouble() >= amostragem) {
+            return;
+        }
+        if (!buffer.offer(new Acesso(System.currentTimeMillis(), metodo, caminho, status, duracaoNanos, lento))) {
+            descartados.increment();
+        }
+    }
+
+    private void escrever() {
+        List<Acesso> lote = new ArrayList<>(LOTE);
+        StringBuilder linha = new StringBuilder(256);
+        while (true) {
+            try {
+                lote.add(buffer.take());
+            } catch (InterruptedException e) {
+                // Encerramento: grava o que ainda estiver no buffer
+                buffer.drainTo(lote);
+                gravar(lote, linha);
+                return;
+            }
+            buffer.drainTo(lote, LOTE - 1);
+            gravar(lote, linha);
+        }
+    }
+
+    private static void gravar(List<Acesso> lote, StringBuilder linha) {
+        for (Acesso acesso : lote) {
+            linha.setLength(0);
+            Log.info(formatar(acesso, linha));
+        }
+        lote.clear();
+    }
+
+    static String formatar(Acesso acesso, StringBuilder linha) {
+        linha.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(acesso.instante()))
+                .append("\",\"metodo\":\"").append(acesso.metodo())
+                .append("\",\"caminho\":\"");
+        escapar(acesso.caminho(), linha);
+        linha.append("\",\"status\":").append(acesso.status())
+                .append(",\"duracaoMs\":").append(acesso.duracaoNanos() / 1_000_000).append('.');
+        long micros = acesso.duracaoNanos() / 1_000 % 1_000;
+        if (micros < 100) {
+            linha.append(micros < 10 ? "00" : "0");
+        }
+        linha.append(micros)
+                .append(",\"lento\":").append(acesso.lento())
+                .append('}');
+        return linha.toString();
+    }
+
+    private static void escapar(String valor, StringBuilder linha) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                linha.append('\\').append(c);
+            } else if (c < 0x20) {
+                linha.append(String.format("\\u%04x", (int) c));
+            } else {
+                linha.append(c);
+            }
+        }
+    }
+}
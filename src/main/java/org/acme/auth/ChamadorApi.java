@@ -0,0 +1,57 @@
+package org.acme.auth;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Optional;
+
+/**
+ * Cliente da requisição atual, resolvido a partir do header da API key uma única vez por requisição.
+ */
+@RequestScoped
+public class ChamadorApi {
+
+    @Context
+    HttpHeaders headers;
+
+    @Inject
+    RegistroApiKeys registro;
+
+    @ConfigProperty(name = "quarkus.api-key.header-name", defaultValue = "X-API-Key")
+    String headerKey;
+
+    private boolean resolvido;
+    private String apiKey;
+    private ClienteApi cliente;
+
+    /**
+     * @return {@code true} se a requisição trouxe o header da API key preenchido
+     */
+    public boolean informouChave() {
+        resolver();
+        return apiKey != null;
+    }
+
+    /**
+     * @return o cliente dono da API key enviada, ou vazio se não houver chave ou ela não estiver registrada
+     */
+    public Optional<ClienteApi> cliente() {
+        resolver();
+        return Optional.ofNullable(cliente);
+    }
+
+    private void resolver() {
+        if (resolvido) {
+            return;
+        }
+        String valor = headers.getHeaderString(headerKey);
+        if (valor != null && !valor.isEmpty()) {
+            apiKey = valor;
+            cliente = registro.resolver(valor).orElse(null);
+        }
+        resolvido = true;
+    }
+}
@@ -0,0 +1,11 @@
+package org.acme.auth;
+
+/**
+ * Cliente identificado por uma API key.
+ *
+ * @param id              identificador estável do cliente (não é a chave)
+ * @param limitePorMinuto requisições por minuto permitidas ao cliente nas rotas de leitura e escrita;
+ *                        {@code null} usa o limite padrão
+ */
+public record ClienteApi(String id, Integer limitePorMinuto) {
+}
@@ -0,0 +1,153 @@
+package org.acme.auth;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * API keys aceitas, guardadas apenas como SHA-256 e indexadas pelo hash.
+ * <p>
+ * As chaves vêm de {@code api.auth.chaves} e, opcionalmente, de um arquivo ({@code api.auth.arquivo}) relido
+ * periodicamente, o que permite rotacionar chaves sem reiniciar. Cada entrada tem o formato
+ * {@code id:sha256-hex[:limite-por-minuto]}. A recarga monta um mapa novo e o publica de uma vez;
+ * as leituras nunca bloqueiam.
+ * <p>
+ * {@code quarkus.api-key.value}, em texto puro, é registrada como o cliente {@code padrao} e só é configurada
+ * nos perfis dev e test.
+ */
+@Startup
+@ApplicationScoped
+public class RegistroApiKeys {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String ID_CHAVE_LEGADA = "padrao";
+
+    private record Chave(byte[] hash, ClienteApi cliente) {
+    }
+
+    @ConfigProperty(name = "quarkus.api-key.value")
+    Optional<String> chaveLegada;
+
+    @ConfigProperty(name = "api.auth.chaves")
+    Optional<List<String>> chavesConfiguradas;
+
+    @ConfigProperty(name = "api.auth.arquivo")
+    Optional<Path> arquivo;
+
+    private volatile Map<String, Chave> chavesPorHash = Map.of();
+    private volatile long modificacaoArquivo = Long.MIN_VALUE;
+
+    @PostConstruct
+    void iniciar() {
+        recarregar();
+    }
+
+    /**
+     * @return o cliente dono da chave, ou vazio se a chave não estiver registrada
+     */
+    public Optional<ClienteApi> resolver(String apiKey) {
+        byte[] hash = sha256(apiKey);
+        Chave chave = chavesPorHash.get(HEX.formatHex(hash));
+        // O mapa localiza a entrada pelo hash (que não revela a chave); a confirmação final não depende de
+        // quantos bytes coincidem
+        if (chave == null || !MessageDigest.isEqual(chave.hash(), hash)) {
+            return Optional.empty();
+        }
+        return Optional.of(chave.cliente());
+    }
+
+    public int totalChaves() {
+        return chavesPorHash.size();
+    }
+
+    /**
+     * Relê o arquivo de chaves se ele mudou desde a última carga.
+     */
+    public void recarregarSeAlterado() {
+        if (arquivo.isEmpty()) {
+            return;
+        }
+        try {
+            if (Files.getLastModifiedTime(arquivo.get()).toMillis() != modificacaoArquivo) {
+                recarregar();
+            }
+        } catch (IOException e) {
+            Log.warnf("Não foi possível verificar o arquivo de API keys %s: %s", arquivo.get(), e.getMessage());
+        }
+    }
+
+    /**
+     * Remonta o registro a partir da configuração e do arquivo. Se o arquivo não puder ser lido,
+     * as chaves atuais são mantidas.
+     */
+    public synchronized void recarregar() {
+        Map<String, Chave> novas = new HashMap<>();
+        chaveLegada.filter(valor -> !valor.isBlank())
+                .ifPresent(valor -> registrar(novas, new Chave(sha256(valor), new ClienteApi(ID_CHAVE_LEGADA, null))));
+        chavesConfiguradas.orElse(List.of()).forEach(linha -> adicionar(novas, linha, "api.auth.chaves"));
+
+        if (arquivo.isPresent()) {
+            Path caminho = arquivo.get();
+            try {
+                long modificacao = Files.getLastModifiedTime(caminho).toMillis();
+                for (String linha : Files.readAllLines(caminho, StandardCharsets.UTF_8)) {
+                    String conteudo = linha.strip();
+                    if (!conteudo.isEmpty() && !conteudo.startsWith("#")) {
+                        adicionar(novas, conteudo, caminho.toString());
+                    }
+                }
+                modificacaoArquivo = modificacao;
+            } catch (IOException e) {
+                Log.warnf("Não foi possível ler o arquivo de API keys %s; mantendo as chaves atuais: %s", caminho, e.getMessage());
+                return;
+            }
+        }
+
+        chavesPorHash = Map.copyOf(novas);
+        Log.infof("%d API keys carregadas", novas.size());
+    }
+
+    private static void adicionar(Map<String, Chave> chaves, String linha, String origem) {
+        String[] partes = linha.strip().split(":");
+        try {
+            if (partes.length < 2 || partes.length > 3 || partes[0].isBlank()) {
+                throw new IllegalArgumentException("formato esperado id:sha256-hex[:limite-por-minuto]");
+            }
+            byte[] hash = HEX.parseHex(partes[1].strip().toLowerCase());
+            if (hash.length != 32) {
+                throw new IllegalArgumentException("o hash deve ser um SHA-256 em hexadecimal");
+            }
+            Integer limite = partes.length == 3 ? Integer.valueOf(partes[2].strip()) : null;
+            registrar(chaves, new Chave(hash, new ClienteApi(partes[0].strip(), limite)));
+        } catch (IllegalArgumentException e) {
+            // Não registra a linha, mas não derruba as demais chaves
+            Log.warnf("Entrada de API key ignorada em %s (cliente '%s'): %s", origem, partes[0], e.getMessage());
+        }
+    }
+
+    private static void registrar(Map<String, Chave> chaves, Chave chave) {
+        chaves.put(HEX.formatHex(chave.hash()), chave);
+    }
+
+    static byte[] sha256(String valor) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(valor.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
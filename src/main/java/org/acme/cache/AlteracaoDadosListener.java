@@ -0,0 +1,26 @@
+package org.acme.cache;
+
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Avisa o {@link CacheDeRespostas} sobre inserções, alterações e remoções feitas pelas entidades.
+ * UPDATEs/DELETEs em massa (HQL) não passam por aqui; os repositórios os registram explicitamente.
+ */
+public class AlteracaoDadosListener {
+
+    // O Hibernate instancia o listener fora do CDI, então o bean é obtido na primeira chamada
+    private CacheDeRespostas cacheDeRespostas;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void registrar(Object entidade) {
+        if (cacheDeRespostas == null) {
+            cacheDeRespostas = CDI.current().select(CacheDeRespostas.class).get();
+        }
+        cacheDeRespostas.registrarAlteracao();
+    }
+}
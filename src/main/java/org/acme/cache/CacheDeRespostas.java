@@ -0,0 +1,128 @@
+package org.acme.cache;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Respostas de leitura guardadas por endpoint + parâmetros e validadas por uma versão global dos dados.
+ * <p>
+ * A versão fica no banco (tabela {@code versao_dados}), então é a mesma em todas as instâncias: uma escrita feita
+ * em qualquer uma invalida as entradas de todas, e a mesma versão gera a mesma ETag em qualquer instância.
+ * Qualquer escrita em Escola, Aluno ou Matricula incrementa a versão depois do commit, numa transação própria e
+ * curta: a escrita não segura o lock da linha durante o próprio commit, então escritas concorrentes não se
+ * enfileiram atrás dela. Como a resposta é guardada sob a versão lida antes da consulta, uma leitura concorrente
+ * nunca associa dados antigos a uma versão nova; no pior caso guarda dados novos sob a versão antiga, que o
+ * incremento logo invalida. A versão é lida e gravada por JDBC direto, fora da sessão do Hibernate.
+ */
+@ApplicationScoped
+public class CacheDeRespostas {
+
+    private static final String LER_VERSAO = "select versao from versao_dados where id = 1";
+    private static final String AVANCAR_VERSAO = "update versao_dados set versao = versao + 1 where id = 1";
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "api.cache-respostas.max-entradas", defaultValue = "1000")
+    int maxEntradas;
+
+    public record Entrada(long versao, Object corpo) {
+    }
+
+    public long versaoAtual() {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement comando = conexao.prepareStatement(LER_VERSAO);
+             ResultSet resultado = comando.executeQuery()) {
+            return resultado.next() ? resultado.getLong(1) : 0L;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao ler a versão dos dados", e);
+        }
+    }
+
+    /**
+     * ETag forte da versão: a mesma versão dos dados sempre gera o mesmo corpo para a mesma chave.
+     */
+    public String etag(long versao) {
+        return "v" + versao;
+    }
+
+    /**
+     * @return a entrada da chave, ou {@code null} se não existir ou for de uma versão anterior
+     */
+    public Entrada buscar(String chave, long versaoAtual) {
+        Entrada entrada = entradas.get(chave);
+        return entrada != null && entrada.versao() == versaoAtual ? entrada : null;
+    }
+
+    public void guardar(String chave, long versao, Object corpo) {
+        if (entradas.size() >= maxEntradas) {
+            entradas.clear();
+        }
+        entradas.put(chave, new Entrada(versao, corpo));
+    }
+
+    /**
+     * Registra uma alteração de dados. Dentro de uma transação, a versão avança uma única vez, depois do commit
+     * (e não avança em rollback); fora dela, avança imediatamente.
+     */
+    public void registrarAlteracao() {
+        if (transacoes.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            avancarVersao();
+            entradas.clear();
+            return;
+        }
+        if (transacoes.getResource(CacheDeRespostas.class) != null) {
+            return;
+        }
+        transacoes.putResource(CacheDeRespostas.class, Boolean.TRUE);
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    return;
+                }
+                entradas.clear();
+                try {
+                    // A transação original já terminou: o incremento roda e faz commit sozinho
+                    QuarkusTransaction.requiringNew().run(CacheDeRespostas.this::avancarVersao);
+                } catch (RuntimeException e) {
+                    // Os dados já foram gravados; as entradas desta instância foram descartadas e as demais
+                    // se corrigem na próxima escrita
+                    Log.warn("Falha ao avançar a versão dos dados após o commit", e);
+                }
+            }
+        });
+    }
+
+    private void avancarVersao() {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement comando = conexao.prepareStatement(AVANCAR_VERSAO)) {
+            comando.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao avançar a versão dos dados", e);
+        }
+    }
+}
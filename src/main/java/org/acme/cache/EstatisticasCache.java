@@ -0,0 +1,73 @@
+package org.acme.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.repositories.AlunoRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acertos, falhas e ocupação das regiões do cache de segundo nível, lidos das estatísticas do Hibernate.
+ */
+@ApplicationScoped
+public class EstatisticasCache {
+
+    private static final List<String> REGIOES_ENTIDADES = List.of(Escola.class.getName(), Aluno.class.getName());
+    private static final List<String> REGIOES_CONSULTAS = List.of(AlunoRepository.REGIAO_BUSCA);
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Object> estatisticas() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regioes = new LinkedHashMap<>();
+        for (String regiao : REGIOES_ENTIDADES) {
+            regioes.put(regiao, resumo(statistics.getDomainDataRegionStatistics(regiao)));
+        }
+        for (String regiao : REGIOES_CONSULTAS) {
+            // A região de consultas só existe depois da primeira consulta que a usa
+            CacheRegionStatistics estatisticasRegiao = statistics.getQueryRegionStatistics(regiao);
+            regioes.put(regiao, estatisticasRegiao == null ? resumoVazio() : resumo(estatisticasRegiao));
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("estatisticasHabilitadas", statistics.isStatisticsEnabled());
+        resultado.put("regioes", regioes);
+        resultado.put("acertosEntidades", statistics.getSecondLevelCacheHitCount());
+        resultado.put("falhasEntidades", statistics.getSecondLevelCacheMissCount());
+        resultado.put("acertosConsultas", statistics.getQueryCacheHitCount());
+        resultado.put("falhasConsultas", statistics.getQueryCacheMissCount());
+        resultado.put("invalidacoesConsultas", statistics.getUpdateTimestampsCachePutCount());
+        return resultado;
+    }
+
+    private static Map<String, Object> resumo(CacheRegionStatistics regiao) {
+        return resumo(regiao.getHitCount(), regiao.getMissCount(), regiao.getPutCount(), regiao.getElementCountInMemory());
+    }
+
+    private static Map<String, Object> resumoVazio() {
+        return resumo(0, 0, 0, 0);
+    }
+
+    private static Map<String, Object> resumo(long acertos, long falhas, long insercoes, long elementos) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("acertos", acertos);
+        resumo.put("falhas", falhas);
+        resumo.put("insercoes", insercoes);
+        // Elementos atualmente na região; fica abaixo das inserções conforme entradas expiram, são removidas por
+        // tamanho ou invalidadas por escrita
+        resumo.put("elementos", Math.max(elementos, 0));
+        long leituras = acertos + falhas;
+        resumo.put("taxaAcerto", leituras == 0 ? 0.0 : Math.round(acertos * 10000.0 / leituras) / 100.0);
+        return resumo;
+    }
+}
@@ -0,0 +1,85 @@
+package org.acme.cache;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.util.TreeMap;
+
+/**
+ * Situação da requisição atual em relação ao {@link CacheDeRespostas}. A versão dos dados é lida uma única vez
+ * por requisição e compartilhada pelo rate limit (que cobra como leitura o que não vai executar o endpoint) e
+ * pelo interceptor do cache.
+ */
+@RequestScoped
+public class RespostaEmCache {
+
+    @Context
+    HttpHeaders headers;
+
+    @Context
+    UriInfo uriInfo;
+
+    @Inject
+    CacheDeRespostas cacheDeRespostas;
+
+    private Long versao;
+
+    /**
+     * Versão dos dados vista por esta requisição, lida antes da consulta: se uma escrita terminar no meio,
+     * a entrada já nasce desatualizada.
+     */
+    public long versao() {
+        if (versao == null) {
+            versao = cacheDeRespostas.versaoAtual();
+        }
+        return versao;
+    }
+
+    public EntityTag etag() {
+        return new EntityTag(cacheDeRespostas.etag(versao()));
+    }
+
+    // Endpoint + parâmetros em ordem alfabética, para que ?a=1&b=2 e ?b=2&a=1 compartilhem a entrada
+    public String chave() {
+        return uriInfo.getPath() + new TreeMap<>(uriInfo.getQueryParameters());
+    }
+
+    /**
+     * @return a entrada guardada para o endpoint nesta versão dos dados, ou {@code null}
+     */
+    public CacheDeRespostas.Entrada entrada() {
+        return cacheDeRespostas.buscar(chave(), versao());
+    }
+
+    /**
+     * @return {@code true} se o cliente já tem a representação da versão atual ({@code If-None-Match})
+     */
+    public boolean naoModificado() {
+        String ifNoneMatch = headers.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = "\"" + etag().getValue() + "\"";
+        for (String valor : ifNoneMatch.split(",")) {
+            String tag = valor.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} se a resposta sai do cache (304 ou corpo guardado), sem executar o endpoint
+     */
+    public boolean atendidaSemExecutar() {
+        return naoModificado() || entrada() != null;
+    }
+}
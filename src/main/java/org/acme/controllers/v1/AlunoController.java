@@ -1,24 +1,32 @@
 package org.acme.controllers.v1;
 
 import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.acme.DTO.ImportacaoResultadoDTO;
 import org.acme.DTO.InsertAlunoDTO;
+import org.acme.DTO.PaginaDTO;
 import org.acme.DTO.UpdateAlunoStatusDTO;
 import org.acme.entities.Aluno;
 import org.acme.entities.Matricula;
 import org.acme.exceptions.ApiError;
+import org.acme.importacao.AlunoImportService;
 import org.acme.repositories.AlunoRepository;
 import org.acme.repositories.MatriculaRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -31,11 +39,15 @@ import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.acme.interceptors.CachedResponse;
 import org.acme.interceptors.Idempotent; // Certifique-se de que este interceptor está no seu projeto
+import org.acme.interceptors.QueryBudget;
 
 @Path("v1/alunos")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@QueryBudget
 @Tag(name = "Alunos", description = "Gerenciamento de alunos")
 @SecurityScheme(securitySchemeName = "apiKey", type = SecuritySchemeType.APIKEY, apiKeyName = "X-API-Key", in = SecuritySchemeIn.HEADER)
 public class AlunoController {
@@ -46,30 +58,34 @@ public class AlunoController {
     @Inject
     MatriculaRepository matriculaRepository;
 
-    private void logRequest(String endpoint) {
-        Log.info("[" + LocalDateTime.now() + "] Endpoint acessado: " + endpoint);
-    }
+    @Inject
+    Paginacao paginacao;
+
+    @Inject
+    AlunoImportService alunoImportService;
+
 
     @GET
     @SecurityRequirement(name = "apiKey")
-    @Operation(summary = "Lista todos os alunos", description = "Retorna uma lista de todos os alunos cadastrados.")
+    @QueryBudget(entidades = 500) // api.paginacao.limite-maximo
+    @Operation(summary = "Lista todos os alunos", description = "Retorna uma página de todos os alunos cadastrados, ordenada por id. Use o cursor de 'proximoCursor' no parâmetro after para obter a página seguinte.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Lista de alunos retornada com sucesso",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
-                            schema = @Schema(implementation = List.class))),
+                            schema = @Schema(implementation = PaginaDTO.class))),
             @APIResponse(responseCode = "401", description = "Não autorizado"),
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
-    public Response getAllAlunos() {
-        logRequest("/alunos");
-        List<Aluno> alunos = alunoRepository.listAll();
-        return Response.ok(alunos).build();
+    public Response getAllAlunos(@QueryParam("limit") Integer limit,
+                                 @QueryParam("after") String after,
+                                 @Context UriInfo uriInfo) {
+        return paginacao.listar(alunoRepository::listAfter, a -> a.id, limit, after, uriInfo);
     }
 
     @GET
     @Path("/search")
     @SecurityRequirement(name = "apiKey")
-    @Operation(summary = "Busca alunos", description = "Busca alunos com base em critérios específicos (nome, idade). A busca por escola é feita via matrículas.")
+    @Operation(summary = "Busca alunos", description = "Busca alunos com base em critérios específicos (prefixo do nome, sem diferenciar acentos/maiúsculas; faixa de idade). O filtro escolaId retorna alunos com matrícula ATIVA na escola.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Busca realizada com sucesso",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
@@ -80,44 +96,10 @@ public class AlunoController {
     public Response searchAlunos(
             @QueryParam("nome") String nome,
             @QueryParam("idadeMin") Integer idadeMin,
-            @QueryParam("idadeMax") Integer idadeMax, Long escolaId) { // Removido escolaId como QueryParam
-        logRequest("/alunos/search");
+            @QueryParam("idadeMax") Integer idadeMax,
+            @QueryParam("escolaId") Long escolaId) {
         try {
-            List<Aluno> alunos = Aluno.listAll();
-
-            List<Map<String, Object>> result = alunos.stream()
-                    .filter(aluno -> {
-                        // Filtro por nome (case insensitive)
-                        boolean matchNome = nome == null || nome.isEmpty() ||
-                                aluno.getNome().toLowerCase().contains(nome.toLowerCase());
-
-                        // Filtro por idade mínima
-                        boolean matchIdadeMin = idadeMin == null ||
-                                aluno.getIdade() >= idadeMin;
-
-                        // Filtro por idade máxima
-                        boolean matchIdadeMax = idadeMax == null ||
-                                aluno.getIdade() <= idadeMax;
-
-                        return matchNome && matchIdadeMin && matchIdadeMax;
-                    })
-                    .map(aluno -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("id", aluno.id);
-                        map.put("nome", aluno.getNome());
-                        map.put("idade", aluno.getIdade());
-                        map.put("dataNascimento", aluno.getDataNascimento());
-                        map.put("nomeResponsavel", aluno.getNomeResponsavel());
-                        map.put("telefoneResponsavel", aluno.getTelefoneResponsavel());
-                        map.put("emailResponsavel", aluno.getEmailResponsavel());
-                        map.put("endereco", aluno.getEndereco());
-                        map.put("observacoes", aluno.getObservacoes());
-                        map.put("ativo", aluno.getAtivo());
-                        // Não há mais escolaId ou escolaNome diretamente no Aluno
-                        return map;
-                    })
-                    .collect(Collectors.toList());
-
+            List<Map<String, Object>> result = alunoRepository.search(nome, idadeMin, idadeMax, escolaId);
             return Response.ok(result).build();
 
         } catch (Exception e) {
@@ -142,8 +124,6 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response addAluno(@Valid InsertAlunoDTO dto) {
-        logRequest("/alunos");
-
         Aluno aluno = new Aluno();
         aluno.setNome(dto.getNome());
         aluno.setIdade(dto.getIdade());
@@ -178,7 +158,6 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response updateAluno(@PathParam("id") Long id, @Valid InsertAlunoDTO dto) {
-        logRequest("/alunos/" + id);
         Aluno aluno = alunoRepository.findById(id);
         if (aluno == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -214,7 +193,6 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response deleteAluno(@PathParam("id") Long id) {
-        logRequest("/alunos/" + id);
         Aluno aluno = alunoRepository.findById(id);
         if (aluno == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -222,7 +200,7 @@ public class AlunoController {
                     .build();
         }
         // Deletar matrículas associadas antes de deletar o aluno
-        matriculaRepository.delete("aluno", aluno);
+        matriculaRepository.deleteByAluno(aluno);
         alunoRepository.delete(aluno);
         return Response.noContent().build();
     }
@@ -230,6 +208,7 @@ public class AlunoController {
     @GET
     @Path("/{id}/matriculas")
     @SecurityRequirement(name = "apiKey")
+    @QueryBudget(entidades = 200)
     @Operation(summary = "Lista matrículas de um aluno", description = "Retorna todas as matrículas associadas a um aluno específico.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Lista de matrículas retornada com sucesso",
@@ -240,12 +219,11 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response getMatriculasPorAluno(@PathParam("id") Long id) {
-        logRequest("/alunos/" + id + "/matriculas");
         Aluno aluno = alunoRepository.findById(id);
         if (aluno == null) {
             return Response.status(Response.Status.NOT_FOUND).entity("Aluno não encontrado.").build();
         }
-        List<Matricula> matriculas = matriculaRepository.find("aluno", aluno).list();
+        List<Matricula> matriculas = matriculaRepository.listByAlunoComEscola(aluno);
         return Response.ok(matriculas).build();
     }
 
@@ -265,7 +243,6 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response updateAlunoStatus(@PathParam("id") Long id, @Valid UpdateAlunoStatusDTO dto) {
-        logRequest("/alunos/" + id + "/status");
         Aluno aluno = alunoRepository.findById(id);
         if (aluno == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -289,7 +266,6 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response checkAlunoExists(@PathParam("id") Long id) {
-        logRequest("/alunos/" + id);
         Aluno aluno = alunoRepository.findById(id);
         if (aluno == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -299,6 +275,7 @@ public class AlunoController {
 
     @GET
     @Path("/media-idade")
+    @CachedResponse
     @SecurityRequirement(name = "apiKey")
     @Operation(summary = "Calcula a média de idade dos alunos por escola", description = "Calcula a média de idade dos alunos cadastrados no sistema, agrupados por escola via matrículas.")
     @APIResponses(value = {
@@ -309,15 +286,7 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response getMediaIdadeAlunos() {
-        logRequest("/alunos/media-idade");
-        List<Matricula> matriculas = matriculaRepository.listAll();
-
-        Map<Long, Double> mediaPorEscola = matriculas.stream()
-                .filter(m -> m.getAluno() != null && m.getEscola() != null)
-                .collect(Collectors.groupingBy(
-                        m -> m.getEscola().id,
-                        Collectors.averagingDouble(m -> m.getAluno().getIdade())
-                ));
+        Map<Long, Double> mediaPorEscola = matriculaRepository.mediaIdadePorEscola();
         return Response.ok(mediaPorEscola).build();
     }
 
@@ -326,6 +295,7 @@ public class AlunoController {
     @Transactional
     @Idempotent
     @SecurityRequirement(name = "apiKey")
+    @QueryBudget(comandos = QueryBudget.SEM_LIMITE)
     @Operation(summary = "Adiciona um lote de alunos", description = "Adiciona um lote de alunos ao sistema. A associação com a escola é feita através de matrícula.")
     @APIResponses(value = {
             @APIResponse(responseCode = "201", description = "Lote de alunos criado com sucesso",
@@ -336,7 +306,6 @@ public class AlunoController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response addAlunosLote(@Valid List<InsertAlunoDTO> alunos) {
-        logRequest("/alunos/lote");
         List<Aluno> alunosCriados = alunos.stream()
                 .map(dto -> {
                     Aluno aluno = new Aluno();
@@ -358,4 +327,31 @@ public class AlunoController {
         alunosCriados.forEach(alunoRepository::persist);
         return Response.status(Response.Status.CREATED).entity(alunosCriados).build();
     }
+
+    @POST
+    @Path("/importacao")
+    @Consumes({"application/x-ndjson", "text/csv"})
+    @SecurityRequirement(name = "apiKey")
+    @QueryBudget(comandos = QueryBudget.SEM_LIMITE, entidades = QueryBudget.SEM_LIMITE)
+    @Operation(summary = "Importa alunos em massa", description = "Importa alunos a partir de NDJSON (um objeto por linha) ou CSV com cabeçalho (colunas com os nomes dos campos de InsertAlunoDTO). O corpo é lido de forma incremental e gravado em lotes; linhas inválidas não interrompem a importação e são listadas no relatório.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Importação concluída; o relatório traz os totais e os erros por linha",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ImportacaoResultadoDTO.class))),
+            @APIResponse(responseCode = "400", description = "Corpo vazio ou sem cabeçalho"),
+            @APIResponse(responseCode = "401", description = "Não autorizado"),
+            @APIResponse(responseCode = "415", description = "Content-Type não suportado")
+    })
+    public Response importarAlunos(@HeaderParam(HttpHeaders.CONTENT_TYPE) MediaType tipo, InputStream corpo) throws IOException {
+        try {
+            ImportacaoResultadoDTO resultado = tipo != null && tipo.isCompatible(MediaType.valueOf("text/csv"))
+                    ? alunoImportService.importarCsv(corpo)
+                    : alunoImportService.importarNdjson(corpo);
+            return Response.ok(resultado).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", e.getMessage(), "/alunos/importacao"))
+                    .build();
+        }
+    }
 }
\ No newline at end of file
@@ -1,23 +1,27 @@
 package org.acme.controllers.v1;
 
-import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import org.acme.DTO.InsertEscolaDTO;
+import org.acme.DTO.PaginaDTO;
 import org.acme.DTO.UpdateEscolaStatusDTO;
 import org.acme.entities.Escola;
 import org.acme.repositories.EscolaRepository;
 import org.acme.repositories.MatriculaRepository; // Importar o repositório de Matrícula
+import org.acme.interceptors.CachedResponse;
 import org.acme.interceptors.Idempotent;
+import org.acme.interceptors.QueryBudget;
 import org.acme.exceptions.ApiError;
 
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.time.LocalDateTime; // Importar LocalDateTime
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -34,6 +38,8 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 @Path("v1/escolas")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@QueryBudget
 @Tag(name = "Escolas", description = "Gerenciamento de escolas")
 @SecurityScheme(
         securitySchemeName = "apiKey",
@@ -49,29 +55,32 @@ public class EscolaController {
     @Inject
     MatriculaRepository matriculaRepository; // Injetar o repositório de Matrícula
 
-    private void logRequest(String endpoint) {
-        Log.info("[" + LocalDateTime.now() + "] Endpoint acessado: " + endpoint);
-    }
+    @Inject
+    Paginacao paginacao;
+
 
     @GET
     @SecurityRequirement(name = "apiKey")
-    @Operation(summary = "Lista todas as escolas", description = "Retorna uma lista de todas as escolas cadastradas.")
+    @QueryBudget(entidades = 500) // api.paginacao.limite-maximo
+    @Operation(summary = "Lista todas as escolas", description = "Retorna uma página de todas as escolas cadastradas, ordenada por id. Use o cursor de 'proximoCursor' no parâmetro after para obter a página seguinte.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Lista de escolas retornada com sucesso",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
-                            schema = @Schema(implementation = List.class))),
+                            schema = @Schema(implementation = PaginaDTO.class))),
             @APIResponse(responseCode = "401", description = "Não autorizado"),
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
-    public Response getAllEscolas() {
-        logRequest("/escolas");
-        List<Escola> escolas = escolaRepository.listAll();
-        return Response.ok(escolas).build();
+    public Response getAllEscolas(@QueryParam("limit") Integer limit,
+                                  @QueryParam("after") String after,
+                                  @Context UriInfo uriInfo) {
+        return paginacao.listar(escolaRepository::listAfter, e -> e.id, limit, after, uriInfo);
     }
 
     @GET
     @Path("/disponiveis")
+    @CachedResponse
     @SecurityRequirement(name = "apiKey")
+    @QueryBudget(entidades = QueryBudget.SEM_LIMITE)
     @Operation(summary = "Lista escolas com capacidade disponível", description = "Retorna uma lista de escolas que ainda têm vagas disponíveis com base nas matrículas ativas.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Lista de escolas disponíveis retornada com sucesso",
@@ -81,10 +90,9 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response getEscolasComVagas() {
-        logRequest("/escolas/disponiveis");
         List<Escola> escolas = escolaRepository.listAll();
         List<Escola> escolasDisponiveis = escolas.stream()
-                .filter(escola -> matriculaRepository.count("escola = ?1 and status = 'ATIVA'", escola) < escola.getCapacidade())
+                .filter(Escola::temVagasDisponiveis)
                 .toList();
         return Response.ok(escolasDisponiveis).build();
     }
@@ -103,7 +111,6 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response addEscola(@Valid InsertEscolaDTO dto) {
-        logRequest("/escolas");
         Escola escola = new Escola();
         escola.setNome(dto.getNome());
         escola.setCapacidade(dto.getCapacidade());
@@ -133,7 +140,6 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response updateEscola(@PathParam("id") Long id, @Valid InsertEscolaDTO dto) {
-        logRequest("/escolas/" + id);
         Escola escola = escolaRepository.findById(id);
         if (escola == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -167,7 +173,6 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response deleteEscola(@PathParam("id") Long id) {
-        logRequest("/escolas/" + id);
         Escola escola = escolaRepository.findById(id);
         if (escola == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -191,13 +196,12 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response getEscolaCapacidadeOptions(@PathParam("id") Long id) {
-        logRequest("/escolas/" + id + "/capacidade");
         Escola escola = escolaRepository.findById(id);
         if (escola == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
 
-        long alunosMatriculados = matriculaRepository.count("escola = ?1 and status = 'ATIVA'", escola); // Contar matrículas ativas
+        long alunosMatriculados = escola.getAlunosAtivos();
 
         return Response.ok()
                 .header("Allow", "GET, PATCH, OPTIONS")
@@ -223,7 +227,6 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response atualizarCapacidadeEscola(@PathParam("id") Long id, @QueryParam("novaCapacidade") int novaCapacidade) {
-        logRequest("/escolas/" + id + "/capacidade");
         Escola escola = escolaRepository.findById(id);
         if (escola == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -234,7 +237,7 @@ public class EscolaController {
             return Response.status(Response.Status.BAD_REQUEST).entity("A capacidade deve ser maior ou igual a zero.").build();
         }
 
-        long alunosMatriculados = matriculaRepository.count("escola = ?1 and status = 'ATIVA'", escola);
+        long alunosMatriculados = escolaRepository.contarAlunosAtivos(id);
         if (novaCapacidade < alunosMatriculados) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("A nova capacidade (" + novaCapacidade + ") não pode ser menor que o número de alunos ativos matriculados (" + alunosMatriculados + ").")
@@ -260,29 +263,13 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response getOcupacaoEscola(@PathParam("id") Long id) {
-        logRequest("/escolas/" + id + "/ocupacao");
-        Escola escola = escolaRepository.findById(id);
-        if (escola == null) {
+        Map<String, Object> ocupacao = escolaRepository.ocupacao(id);
+        if (ocupacao == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ApiError(404, "Not Found", "Escola não encontrada", "/escolas/" + id + "/ocupacao"))
                     .build();
         }
 
-        long alunosMatriculadosAtivos = matriculaRepository.count("escola = ?1 and status = 'ATIVA'", escola); // Contar matrículas ativas
-
-        Map<String, Object> ocupacao = new HashMap<>();
-        ocupacao.put("escolaId", escola.id);
-        ocupacao.put("escolaNome", escola.getNome());
-        ocupacao.put("capacidade", escola.getCapacidade());
-        ocupacao.put("alunosAtivosMatriculados", alunosMatriculadosAtivos);
-
-        double ocupacaoPercentual = 0.0;
-        if (escola.getCapacidade() > 0) {
-            ocupacaoPercentual = (double) alunosMatriculadosAtivos / escola.getCapacidade() * 100;
-        }
-        ocupacao.put("ocupacaoPercentual", ocupacaoPercentual);
-        ocupacao.put("vagasDisponiveis", escola.getCapacidade() - alunosMatriculadosAtivos);
-
         return Response.ok(ocupacao).build();
     }
 
@@ -302,7 +289,6 @@ public class EscolaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response updateEscolaStatus(@PathParam("id") Long id, @Valid UpdateEscolaStatusDTO dto) {
-        logRequest("/escolas/" + id + "/status");
         Escola escola = escolaRepository.findById(id);
         if (escola == null) {
             return Response.status(Response.Status.NOT_FOUND)
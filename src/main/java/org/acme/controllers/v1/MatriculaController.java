@@ -1,13 +1,16 @@
 package org.acme.controllers.v1;
 
-import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import org.acme.DTO.InsertMatriculaDTO;
+import org.acme.DTO.PaginaDTO;
 import org.acme.DTO.UpdateMatriculaStatusDTO;
 import org.acme.entities.Aluno;
 import org.acme.entities.Escola;
@@ -16,7 +19,9 @@ import org.acme.repositories.AlunoRepository;
 import org.acme.repositories.EscolaRepository;
 import org.acme.repositories.MatriculaRepository;
 import org.acme.exceptions.ApiError;
+import org.acme.exceptions.MatriculaException;
 import org.acme.interceptors.Idempotent;
+import org.acme.interceptors.QueryBudget;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeIn;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeType;
@@ -29,13 +34,14 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.time.LocalDateTime; // Importar LocalDateTime
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Path("v1/matriculas")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@QueryBudget
 @Tag(name = "Matrículas", description = "Gerenciamento de matrículas")
 @SecurityScheme(securitySchemeName = "apiKey", type = SecuritySchemeType.APIKEY, apiKeyName = "X-API-Key", in = SecuritySchemeIn.HEADER)
 public class MatriculaController {
@@ -49,24 +55,25 @@ public class MatriculaController {
     @Inject
     AlunoRepository alunoRepository;
 
-    private void logRequest(String endpoint) {
-        Log.info("[" + LocalDateTime.now() + "] Endpoint acessado: " + endpoint);
-    }
+    @Inject
+    Paginacao paginacao;
+
 
     @GET
     @SecurityRequirement(name = "apiKey")
-    @Operation(summary = "Lista todas as matrículas", description = "Retorna uma lista de todas as matrículas cadastradas.")
+    @QueryBudget(entidades = 1500) // api.paginacao.limite-maximo, com aluno e escola
+    @Operation(summary = "Lista todas as matrículas", description = "Retorna uma página de todas as matrículas cadastradas, ordenada por id. Use o cursor de 'proximoCursor' no parâmetro after para obter a página seguinte.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Lista de matrículas retornada com sucesso",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
-                            schema = @Schema(implementation = List.class))),
+                            schema = @Schema(implementation = PaginaDTO.class))),
             @APIResponse(responseCode = "401", description = "Não autorizado"),
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
-    public Response getAllMatriculas() {
-        logRequest("/matriculas");
-        List<Matricula> matriculas = matriculaRepository.listAll();
-        return Response.ok(matriculas).build();
+    public Response getAllMatriculas(@QueryParam("limit") Integer limit,
+                                     @QueryParam("after") String after,
+                                     @Context UriInfo uriInfo) {
+        return paginacao.listar(matriculaRepository::listAfter, m -> m.id, limit, after, uriInfo);
     }
 
     @POST
@@ -84,7 +91,6 @@ public class MatriculaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response addMatricula(@Valid InsertMatriculaDTO dto) {
-        logRequest("/matriculas");
         Escola escola = escolaRepository.findById(dto.getEscolaId());
         Aluno aluno = alunoRepository.findById(dto.getAlunoId());
 
@@ -113,25 +119,6 @@ public class MatriculaController {
                     .build();
         }
 
-        // Contar matrículas ativas na escola
-        long matriculasAtivasNaEscola = matriculaRepository.count("escola = ?1 and status = 'ATIVA'", escola);
-
-        // Verificar capacidade da escola
-        if (escola.getCapacidade() <= matriculasAtivasNaEscola) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ApiError(400, "Bad Request", "A escola atingiu sua capacidade máxima de matrículas ativas.", "/matriculas"))
-                    .build();
-        }
-
-        // Verificar se o aluno já possui uma matrícula ATIVA na mesma escola
-        boolean jaMatriculadoAtivo = matriculaRepository.find("aluno = ?1 and escola = ?2 and status = 'ATIVA'", aluno, escola)
-                .firstResultOptional().isPresent();
-        if (jaMatriculadoAtivo) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ApiError(400, "Bad Request", "O aluno já possui uma matrícula ATIVA nesta escola.", "/matriculas"))
-                    .build();
-        }
-
         Matricula matricula = new Matricula();
         matricula.setEscola(escola);
         matricula.setAluno(aluno);
@@ -143,7 +130,20 @@ public class MatriculaController {
         matricula.setStatus(Matricula.StatusMatricula.ATIVA);
         matricula.setDataCriacao(LocalDateTime.now()); // Adicionar data de criação
 
-        matriculaRepository.persist(matricula);
+        // A capacidade é conferida só na reserva atômica da vaga (UPDATE condicional no banco): a escola acima vem do
+        // cache de segundo nível, local à instância, e o contador dela pode não refletir vagas liberadas em outra.
+        // Matrícula ATIVA repetida (aluno + escola) é barrada pelo índice único do banco, que desfaz a transação.
+        try {
+            if (!matriculaRepository.registrar(matricula)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ApiError(400, "Bad Request", "A escola atingiu sua capacidade máxima de matrículas ativas.", "/matriculas"))
+                        .build();
+            }
+        } catch (MatriculaException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", e.getMessage(), "/matriculas"))
+                    .build();
+        }
         return Response.status(Response.Status.CREATED).entity(matricula).build();
     }
 
@@ -159,7 +159,6 @@ public class MatriculaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response cancelarMatricula(@PathParam("id") Long id) {
-        logRequest("/matriculas/" + id);
         Matricula matricula = matriculaRepository.findById(id);
         if (matricula == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -171,9 +170,7 @@ public class MatriculaController {
                     .entity(new ApiError(400, "Bad Request", "A matrícula já está cancelada.", "/matriculas/" + id))
                     .build();
         }
-        matricula.setStatus(Matricula.StatusMatricula.CANCELADA);
-        matricula.setDataAtualizacao(LocalDateTime.now()); // Atualizar data de atualização
-        matriculaRepository.persist(matricula);
+        matriculaRepository.alterarStatus(matricula, Matricula.StatusMatricula.CANCELADA);
         return Response.noContent().build();
     }
 
@@ -193,8 +190,7 @@ public class MatriculaController {
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response updateMatriculaStatus(@PathParam("id") Long id, @Valid UpdateMatriculaStatusDTO dto) {
-        logRequest("/matriculas/" + id + "/status");
-        Matricula matricula = matriculaRepository.findById(id);
+        Matricula matricula = matriculaRepository.findByIdComAlunoEEscola(id);
         if (matricula == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ApiError(404, "Not Found", "Matrícula não encontrada", "/matriculas/" + id + "/status"))
@@ -203,8 +199,7 @@ public class MatriculaController {
 
         // Validação adicional: não permitir ativar matrícula em escola lotada
         if (dto.getAtivo() && matricula.getStatus() == Matricula.StatusMatricula.CANCELADA) {
-            long matriculasAtivasNaEscola = matriculaRepository.count("escola = ?1 and status = 'ATIVA'", matricula.getEscola());
-            if (matricula.getEscola().getCapacidade() <= matriculasAtivasNaEscola) {
+            if (!matricula.getEscola().temVagasDisponiveis()) {
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity(new ApiError(400, "Bad Request", "Não é possível reativar a matrícula: a escola está lotada.", "/matriculas/" + id + "/status"))
                         .build();
@@ -222,9 +217,17 @@ public class MatriculaController {
             }
         }
 
-        matricula.setStatus(dto.getAtivo() ? Matricula.StatusMatricula.ATIVA : Matricula.StatusMatricula.CANCELADA);
-        matricula.setDataAtualizacao(LocalDateTime.now()); // Atualizar data de atualização
-        matriculaRepository.persist(matricula);
+        try {
+            if (!matriculaRepository.alterarStatus(matricula, dto.getAtivo() ? Matricula.StatusMatricula.ATIVA : Matricula.StatusMatricula.CANCELADA)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ApiError(400, "Bad Request", "Não é possível reativar a matrícula: a escola está lotada.", "/matriculas/" + id + "/status"))
+                        .build();
+            }
+        } catch (MatriculaException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "Não é possível reativar a matrícula: " + e.getMessage(), "/matriculas/" + id + "/status"))
+                    .build();
+        }
         return Response.ok(matricula).build();
     }
 
@@ -233,74 +236,76 @@ public class MatriculaController {
     @Transactional
     @Idempotent
     @SecurityRequirement(name = "apiKey")
+    @QueryBudget(comandos = 50, entidades = QueryBudget.SEM_LIMITE)
     @Operation(summary = "Atualiza o status de múltiplas matrículas", description = "Atualiza o status (ATIVA/CANCELADA) de múltiplas matrículas. Validações de capacidade da escola e status de aluno/escola são aplicadas.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "Status de matrículas atualizado com sucesso",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = List.class))),
-            @APIResponse(responseCode = "400", description = "Dados inválidos"),
+            @APIResponse(responseCode = "400", description = "Dados inválidos ou algumas matrículas não atualizadas (detalhes por id em validationErrors)"),
             @APIResponse(responseCode = "401", description = "Não autorizado"),
             @APIResponse(responseCode = "429", description = "Limite de requisições excedido")
     })
     public Response updateMatriculasStatusLote(@QueryParam("ids") List<Long> ids, @Valid UpdateMatriculaStatusDTO dto) {
-        logRequest("/matriculas/lote/status");
-
-        List<Matricula> matriculasAProcessar = ids.stream()
-                .map(matriculaRepository::findById)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        if (ids == null || ids.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "Nenhum ID de matrícula fornecido.", "/matriculas/lote/status"))
+                    .build();
+        }
 
-        if (matriculasAProcessar.isEmpty() && !ids.isEmpty()) {
+        // Um único SELECT (IN) traz as matrículas com aluno e escola
+        List<Matricula> matriculasAProcessar = matriculaRepository.listByIdsComAlunoEEscola(new LinkedHashSet<>(ids));
+        if (matriculasAProcessar.isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity(new ApiError(404, "Not Found", "Nenhuma das matrículas fornecidas foi encontrada.", "/matriculas/lote/status"))
                     .build();
-        } else if (ids.isEmpty()) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ApiError(400, "Bad Request", "Nenhum ID de matrícula fornecido.", "/matriculas/lote/status"))
-                    .build();
         }
 
-        List<Matricula> matriculasAtualizadas = new java.util.ArrayList<>();
-        StringBuilder erros = new StringBuilder();
+        Matricula.StatusMatricula novoStatus = dto.getAtivo() ? Matricula.StatusMatricula.ATIVA : Matricula.StatusMatricula.CANCELADA;
+        ApiError erros = new ApiError(400, "Bad Request", "Algumas matrículas não puderam ser atualizadas.", "/matriculas/lote/status");
+        List<Matricula> matriculasValidas = new java.util.ArrayList<>();
 
         for (Matricula matricula : matriculasAProcessar) {
-            boolean originalStatusAtivo = (matricula.getStatus() == Matricula.StatusMatricula.ATIVA);
-            boolean newStatusAtivo = dto.getAtivo();
-
             // Lógica de validação para reativação
-            if (!originalStatusAtivo && newStatusAtivo) { // Tentando reativar
-                long matriculasAtivasNaEscola = matriculaRepository.count("escola = ?1 and status = 'ATIVA'", matricula.getEscola());
-                if (matricula.getEscola().getCapacidade() <= matriculasAtivasNaEscola) {
-                    erros.append(String.format("Matrícula ID %d: Não é possível reativar. Escola '%s' (ID: %d) está lotada. ",
-                            matricula.id, matricula.getEscola().getNome(), matricula.getEscola().id));
-                    continue;
-                }
+            if (matricula.getStatus() != Matricula.StatusMatricula.ATIVA && dto.getAtivo()) {
                 if (!matricula.getAluno().getAtivo()) {
-                    erros.append(String.format("Matrícula ID %d: Não é possível reativar. Aluno '%s' (ID: %d) está inativo. ",
-                            matricula.id, matricula.getAluno().getNome(), matricula.getAluno().id));
+                    erros.addValidationError(campoDoLote(matricula), String.format("Não é possível reativar. Aluno '%s' (ID: %d) está inativo.",
+                            matricula.getAluno().getNome(), matricula.getAluno().id));
                     continue;
                 }
                 if (!matricula.getEscola().getAtivo()) {
-                    erros.append(String.format("Matrícula ID %d: Não é possível reativar. Escola '%s' (ID: %d) está inativa. ",
-                            matricula.id, matricula.getEscola().getNome(), matricula.getEscola().id));
+                    erros.addValidationError(campoDoLote(matricula), String.format("Não é possível reativar. Escola '%s' (ID: %d) está inativa.",
+                            matricula.getEscola().getNome(), matricula.getEscola().id));
                     continue;
                 }
             }
-
-            // Se as validações passarem ou se for para CANCELAR
-            matricula.setStatus(newStatusAtivo ? Matricula.StatusMatricula.ATIVA : Matricula.StatusMatricula.CANCELADA);
-            matricula.setDataAtualizacao(LocalDateTime.now());
-            matriculaRepository.persist(matricula);
-            matriculasAtualizadas.add(matricula);
+            matriculasValidas.add(matricula);
         }
 
-        if (erros.length() > 0) {
-            // Se houver erros, podemos retornar um 400 com os detalhes
+        // Vagas calculadas uma vez por escola; as alterações vão para o banco em batch no flush
+        List<Matricula> semVaga;
+        try {
+            semVaga = matriculaRepository.alterarStatusEmLote(matriculasValidas, novoStatus);
+        } catch (MatriculaException e) {
+            // O índice único desfaz a transação inteira: nenhuma matrícula do lote é alterada
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(new ApiError(400, "Bad Request", "Algumas matrículas não puderam ser atualizadas: " + erros.toString(), "/matriculas/lote/status"))
+                    .entity(new ApiError(400, "Bad Request", "Nenhuma matrícula foi atualizada. " + e.getMessage(), "/matriculas/lote/status"))
                     .build();
         }
+        for (Matricula matricula : semVaga) {
+            erros.addValidationError(campoDoLote(matricula), String.format("Não é possível reativar. Escola '%s' (ID: %d) está lotada.",
+                    matricula.getEscola().getNome(), matricula.getEscola().id));
+        }
+
+        if (!erros.getValidationErrors().isEmpty()) {
+            // As matrículas válidas foram atualizadas; o corpo detalha, por id, as que não puderam ser
+            return Response.status(Response.Status.BAD_REQUEST).entity(erros).build();
+        }
+
+        return Response.ok(matriculasValidas).build();
+    }
 
-        return Response.ok(matriculasAtualizadas).build();
+    private static String campoDoLote(Matricula matricula) {
+        return "ids[" + matricula.id + "]";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package org.acme.controllers.v1;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.acme.DTO.PaginaDTO;
+import org.acme.exceptions.ApiError;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Monta as respostas paginadas (keyset) usadas pelas listagens e relatórios.
+ */
+@ApplicationScoped
+public class Paginacao {
+
+    @ConfigProperty(name = "api.paginacao.limite-padrao", defaultValue = "50")
+    int limitePadrao;
+
+    @ConfigProperty(name = "api.paginacao.limite-maximo", defaultValue = "500")
+    int limiteMaximo;
+
+    /**
+     * @param buscar recebe o último id já entregue (ou {@code null}) e a quantidade de registros a buscar,
+     *               e deve retornar os registros seguintes em ordem crescente de id
+     */
+    public <T> Response listar(BiFunction<Long, Integer, List<T>> buscar, Function<T, Long> id,
+                               Integer limit, String after, UriInfo uriInfo) {
+        if (limit != null && limit < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "O parâmetro limit deve ser maior que zero.", uriInfo.getPath()))
+                    .build();
+        }
+        Long aposId;
+        try {
+            aposId = PaginaDTO.decodeCursor(after);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ApiError(400, "Bad Request", "Cursor inválido no parâmetro after.", uriInfo.getPath()))
+                    .build();
+        }
+
+        int limite = limit == null ? limitePadrao : Math.min(limit, limiteMaximo);
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar de COUNT
+        List<T> registros = buscar.apply(aposId, limite + 1);
+        boolean temProxima = registros.size() > limite;
+        List<T> itens = temProxima ? registros.subList(0, limite) : registros;
+
+        PaginaDTO<T> pagina = PaginaDTO.<T>builder()
+                .itens(itens)
+                .limite(limite)
+                .build();
+
+        Response.ResponseBuilder response = Response.ok();
+        if (temProxima) {
+            String cursor = PaginaDTO.encodeCursor(id.apply(itens.get(itens.size() - 1)));
+            String proximo = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("limit", limite)
+                    .replaceQueryParam("after", cursor)
+                    .build()
+                    .toString();
+            pagina.setProximoCursor(cursor);
+            pagina.setProximo(proximo);
+            response.header("Link", "<" + proximo + ">; rel=\"next\"");
+        }
+        return response.entity(pagina).build();
+    }
+}
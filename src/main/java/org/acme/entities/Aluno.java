@@ -1,6 +1,7 @@
 package org.acme.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
@@ -10,14 +11,22 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.acme.cache.AlteracaoDadosListener;
 
 import java.io.Serializable;
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
+@EntityListeners(AlteracaoDadosListener.class)
+@Cacheable
+// Índices (nome normalizado e idade): ver db/migration
 @Table(name = "alunos")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,11 +34,18 @@ import java.util.List;
 @Builder
 public class Aluno extends PanacheEntity {
 
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
     @NotBlank(message = "O nome do aluno é obrigatório")
     @Size(min = 3, max = 100, message = "O nome deve ter entre 3 e 100 caracteres")
     @Column(nullable = false)
     private String nome;
 
+    // Nome em minúsculas e sem acentos, usado nas buscas por prefixo (indexado)
+    @JsonIgnore
+    @Column(name = "nome_normalizado", nullable = false, length = 100)
+    private String nomeNormalizado;
+
     @NotNull(message = "A idade é obrigatória")
     @Min(value = 3, message = "A idade mínima é 3 anos")
     @Max(value = 18, message = "A idade máxima é 18 anos")
@@ -67,18 +83,28 @@ public class Aluno extends PanacheEntity {
 
     @Nullable
     @JsonIgnore
-    @OneToMany(mappedBy = "aluno", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "aluno", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Matricula> matricula; // Relação com Matricula
 
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
         ativo = true; // Garante que o aluno é criado como ativo
+        nomeNormalizado = normalizarNome(nome);
     }
 
     @PreUpdate
     protected void onUpdate() {
         dataAtualizacao = LocalDateTime.now();
+        nomeNormalizado = normalizarNome(nome);
+    }
+
+    public static String normalizarNome(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        String decomposto = Normalizer.normalize(nome.trim(), Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(decomposto).replaceAll("").toLowerCase(Locale.ROOT);
     }
 
     // Construtor simplificado
@@ -1,6 +1,7 @@
 package org.acme.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
@@ -13,13 +14,17 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.acme.cache.AlteracaoDadosListener;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 @Entity
+@EntityListeners(AlteracaoDadosListener.class)
+@Cacheable
 @Table(name = "escolas")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -65,10 +70,16 @@ public class Escola extends PanacheEntity {
     // private List<Aluno> alunos = new ArrayList<>();
 
     @Nullable
-    @OneToMany(mappedBy = "escola", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "escola", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonIgnore // Evitar serialização em loop e expor todas as matrículas por padrão
     private List<Matricula> matricula; // Relação com Matricula
 
+    // Contador de matrículas ATIVAS, mantido por EscolaRepository.ajustarAlunosAtivos a cada mudança de status.
+    // updatable = false: só muda via UPDATE atômico, nunca pelo flush da entidade (que poderia gravar um valor antigo).
+    @JsonIgnore
+    @Column(name = "alunos_ativos", nullable = false, updatable = false)
+    private long alunosAtivos;
+
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
@@ -99,30 +110,21 @@ public class Escola extends PanacheEntity {
     //    return this.id;
     // }
 
-    private long getAlunosAtivosCount() {
-        if (this.matricula == null) {
-            return 0;
-        }
-        return this.matricula.stream()
-                .filter(m -> m.getStatus() == Matricula.StatusMatricula.ATIVA)
-                .count();
-    }
-
     public boolean temVagasDisponiveis() {
         if (this.capacidade == null) return false; // Capacidade não definida
-        return getAlunosAtivosCount() < this.capacidade;
+        return this.alunosAtivos < this.capacidade;
     }
 
     public int getVagasDisponiveis() {
         if (this.capacidade == null) return 0; // Capacidade não definida
-        return this.capacidade - (int) getAlunosAtivosCount();
+        return this.capacidade - (int) this.alunosAtivos;
     }
 
     public double getPercentualOcupacao() {
         if (this.capacidade == null || this.capacidade == 0) {
             return 0.0; // Evita divisão por zero e lida com capacidade não definida
         }
-        return (double) getAlunosAtivosCount() / this.capacidade * 100;
+        return (double) this.alunosAtivos / this.capacidade * 100;
     }
 
     public boolean getAtivo() {
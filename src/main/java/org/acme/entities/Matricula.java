@@ -8,18 +8,14 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.acme.cache.AlteracaoDadosListener;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "matriculas", uniqueConstraints = {
-        // Garante que um aluno não pode ter múltiplas matrículas ATIVAS na mesma escola simultaneamente.
-        // Pode ser necessário ajustar a lógica se um aluno puder se rematricular após um período.
-        // Esta constraint pode ser muito restritiva dependendo das regras de negócio.
-        // @UniqueConstraint(columnNames = {"aluno_id", "escola_id", "status"})
-        // Uma constraint mais comum seria apenas para aluno_id e escola_id se apenas uma matrícula (independente do status) é permitida
-        // @UniqueConstraint(columnNames = {"aluno_id", "escola_id"})
-})
+@EntityListeners(AlteracaoDadosListener.class)
+// Índices (compostos e parciais) e a unicidade de matrícula ATIVA por aluno e escola: ver db/migration
+@Table(name = "matriculas")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,12 +24,12 @@ import java.time.LocalDateTime;
 public class Matricula extends PanacheEntity {
 
     @NotNull(message = "O aluno é obrigatório")
-    @ManyToOne(fetch = FetchType.EAGER) // LAZY é geralmente melhor para performance
+    @ManyToOne(fetch = FetchType.LAZY) // Carregado via join fetch nos endpoints que o serializam
     @JoinColumn(name = "aluno_id", nullable = false)
     private Aluno aluno;
 
     @NotNull(message = "A escola é obrigatória")
-    @ManyToOne(fetch = FetchType.EAGER) // LAZY é geralmente melhor para performance
+    @ManyToOne(fetch = FetchType.LAZY) // Carregado via join fetch nos endpoints que o serializam
     @JoinColumn(name = "escola_id", nullable = false)
     private Escola escola;
 
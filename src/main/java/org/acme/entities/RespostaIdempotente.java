@@ -0,0 +1,46 @@
+package org.acme.entities;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta gravada de uma requisição com {@code Idempotency-Key}, usada pela camada persistente do
+ * {@link org.acme.idempotencia.IdempotenciaStore} para reproduzir a resposta entre reinícios e instâncias.
+ */
+@Entity
+// Índice de expira_em para a limpeza periódica: ver db/migration
+@Table(name = "respostas_idempotentes")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RespostaIdempotente extends PanacheEntityBase {
+
+    // Escopo do cliente + Idempotency-Key
+    @Id
+    @Column(name = "chave", length = 320)
+    private String chave;
+
+    // SHA-256 (hex) do método, caminho e parâmetros da requisição original
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Column(name = "status", nullable = false)
+    private int status;
+
+    @Column(name = "corpo", length = 1_000_000)
+    private String corpo;
+
+    @Column(name = "tipo_conteudo", length = 100)
+    private String tipoConteudo;
+
+    @Column(name = "location", length = 500)
+    private String location;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
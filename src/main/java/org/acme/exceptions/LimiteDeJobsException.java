@@ -0,0 +1,7 @@
+package org.acme.exceptions;
+
+public class LimiteDeJobsException extends RuntimeException {
+    public LimiteDeJobsException(String message) {
+        super(message);
+    }
+}
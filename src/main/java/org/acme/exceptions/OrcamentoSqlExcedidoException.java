@@ -0,0 +1,7 @@
+package org.acme.exceptions;
+
+public class OrcamentoSqlExcedidoException extends RuntimeException {
+    public OrcamentoSqlExcedidoException(String message) {
+        super(message);
+    }
+}
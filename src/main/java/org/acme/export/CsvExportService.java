@@ -0,0 +1,160 @@
+package org.acme.export;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exportações CSV lidas com cursor forward-only: o uso de memória não depende do número de linhas.
+ * A cada {@code api.export.tamanho-lote} linhas o buffer é enviado ao cliente e o contexto de persistência é limpo.
+ */
+@ApplicationScoped
+public class CsvExportService {
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "api.export.tamanho-lote", defaultValue = "1000")
+    int tamanhoLote;
+
+    @Transactional
+    public void exportarAlunos(OutputStream output) throws IOException {
+        CsvWriter csv = new CsvWriter(output);
+        csv.header("ID", "Nome", "Idade", "Data Nascimento", "Nome Responsavel", "Telefone Responsavel",
+                "Email Responsavel", "Endereco", "Observacoes", "Ativo");
+
+        try (ScrollableResults<Aluno> alunos = scroll("from Aluno order by id", Aluno.class)) {
+            int linhas = 0;
+            while (alunos.next()) {
+                Aluno aluno = alunos.get();
+                csv.field(aluno.id)
+                        .field(aluno.getNome())
+                        .field(aluno.getIdade())
+                        .field(aluno.getDataNascimento() != null ? aluno.getDataNascimento().format(DateTimeFormatter.ISO_LOCAL_DATE) : null)
+                        .field(aluno.getNomeResponsavel())
+                        .field(aluno.getTelefoneResponsavel())
+                        .field(aluno.getEmailResponsavel())
+                        .field(aluno.getEndereco())
+                        .field(aluno.getObservacoes())
+                        .field(aluno.getAtivo())
+                        .endRow();
+                if (++linhas % tamanhoLote == 0) {
+                    fimDoLote(csv);
+                }
+            }
+        }
+        csv.flush();
+    }
+
+    @Transactional
+    public void exportarEscolas(OutputStream output) throws IOException {
+        CsvWriter csv = new CsvWriter(output);
+        csv.header("ID", "Nome", "Capacidade", "Endereco", "Telefone", "Email", "Diretor", "Ativo");
+
+        try (ScrollableResults<Escola> escolas = scroll("from Escola order by id", Escola.class)) {
+            int linhas = 0;
+            while (escolas.next()) {
+                Escola escola = escolas.get();
+                csv.field(escola.id)
+                        .field(escola.getNome())
+                        .field(escola.getCapacidade())
+                        .field(escola.getEndereco())
+                        .field(escola.getTelefone())
+                        .field(escola.getEmail())
+                        .field(escola.getDiretor())
+                        .field(escola.getAtivo())
+                        .endRow();
+                if (++linhas % tamanhoLote == 0) {
+                    fimDoLote(csv);
+                }
+            }
+        }
+        csv.flush();
+    }
+
+    /**
+     * Exporta as matrículas com os nomes de aluno e escola obtidos por join, sem carregar entidades.
+     * Os filtros são opcionais; o período é semiaberto [{@code inicio}, {@code fimExclusivo}) sobre {@code dataInicio}.
+     */
+    @Transactional
+    public void exportarMatriculas(OutputStream output, LocalDateTime inicio, LocalDateTime fimExclusivo,
+                                   Matricula.StatusMatricula status) throws IOException {
+        CsvWriter csv = new CsvWriter(output);
+        csv.header("ID", "Aluno ID", "Aluno Nome", "Escola ID", "Escola Nome", "Status", "Data Matricula",
+                "Data Inicio", "Data Fim", "Observacoes");
+
+        StringBuilder hql = new StringBuilder("""
+                select m.id, a.id, a.nome, e.id, e.nome, m.status, m.dataMatricula, m.dataInicio, m.dataFim, m.observacoes
+                from Matricula m join m.aluno a join m.escola e
+                where 1 = 1""");
+        List<Object> parametros = new ArrayList<>();
+        if (status != null) {
+            parametros.add(status);
+            hql.append(" and m.status = ?").append(parametros.size());
+        }
+        if (inicio != null) {
+            parametros.add(inicio);
+            hql.append(" and m.dataInicio >= ?").append(parametros.size());
+        }
+        if (fimExclusivo != null) {
+            parametros.add(fimExclusivo);
+            hql.append(" and m.dataInicio < ?").append(parametros.size());
+        }
+        hql.append(" order by m.id");
+
+        SelectionQuery<Object[]> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(hql.toString(), Object[].class)
+                .setReadOnly(true)
+                .setFetchSize(tamanhoLote);
+        for (int i = 0; i < parametros.size(); i++) {
+            query.setParameter(i + 1, parametros.get(i));
+        }
+
+        try (ScrollableResults<Object[]> matriculas = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            int linhas = 0;
+            while (matriculas.next()) {
+                for (Object valor : matriculas.get()) {
+                    csv.field(valor instanceof LocalDateTime data ? data.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : valor);
+                }
+                csv.endRow();
+                if (++linhas % tamanhoLote == 0) {
+                    fimDoLote(csv);
+                }
+            }
+        }
+        csv.flush();
+    }
+
+    // CacheMode.IGNORE: uma exportação completa não passa pelo cache de segundo nível, que de outro modo receberia
+    // todos os alunos/escolas e descartaria as entradas consultadas com frequência
+    private <T> ScrollableResults<T> scroll(String hql, Class<T> tipo) {
+        return entityManager.unwrap(Session.class)
+                .createSelectionQuery(hql, tipo)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(tamanhoLote)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    private void fimDoLote(CsvWriter csv) throws IOException {
+        csv.flush();
+        entityManager.clear();
+    }
+}
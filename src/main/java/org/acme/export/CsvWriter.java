@@ -0,0 +1,100 @@
+package org.acme.export;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escritor de CSV (RFC 4180) que grava direto no buffer de saída, sem montar a linha em memória.
+ * Campos com vírgula, aspas ou quebra de linha são colocados entre aspas; {@code null} vira campo vazio.
+ */
+public class CsvWriter implements Closeable {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final Writer writer;
+    private boolean inicioDaLinha = true;
+
+    public CsvWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+    public CsvWriter header(String... colunas) throws IOException {
+        for (String coluna : colunas) {
+            field(coluna);
+        }
+        return endRow();
+    }
+
+    public CsvWriter field(Object valor) throws IOException {
+        separador();
+        if (valor != null) {
+            escrever(valor.toString());
+        }
+        return this;
+    }
+
+    public CsvWriter field(long valor) throws IOException {
+        separador();
+        writer.write(Long.toString(valor));
+        return this;
+    }
+
+    public CsvWriter field(boolean valor) throws IOException {
+        separador();
+        writer.write(valor ? "true" : "false");
+        return this;
+    }
+
+    public CsvWriter endRow() throws IOException {
+        writer.write('\n');
+        inicioDaLinha = true;
+        return this;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void separador() throws IOException {
+        if (!inicioDaLinha) {
+            writer.write(',');
+        }
+        inicioDaLinha = false;
+    }
+
+    private void escrever(String valor) throws IOException {
+        if (!precisaDeAspas(valor)) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean precisaDeAspas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
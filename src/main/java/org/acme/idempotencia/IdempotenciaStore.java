@@ -0,0 +1,166 @@
+package org.acme.idempotencia;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.acme.entities.RespostaIdempotente;
+import org.acme.repositories.RespostaIdempotenteRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Execuções de requisições com {@code Idempotency-Key}.
+ * <p>
+ * A camada em memória (Caffeine, limitada por tamanho e TTL) guarda tanto as execuções em andamento, para que
+ * duplicatas concorrentes aguardem a mesma execução, quanto as respostas concluídas. Com
+ * {@code api.idempotencia.persistente=true}, as respostas também são gravadas no banco e sobrevivem a
+ * reinícios e à troca de instância.
+ */
+@ApplicationScoped
+public class IdempotenciaStore {
+
+    public record RespostaGravada(int status, Object corpo, String tipoConteudo, String location) {
+    }
+
+    /**
+     * Uma execução por chave: {@link #resultado()} completa com a resposta gravada, ou com erro se a
+     * execução original falhar (e a chave é liberada para uma nova tentativa).
+     */
+    public static final class Execucao {
+
+        private final String hashRequisicao;
+        private final boolean dona;
+        private final CompletableFuture<RespostaGravada> resultado;
+
+        private Execucao(String hashRequisicao, boolean dona, CompletableFuture<RespostaGravada> resultado) {
+            this.hashRequisicao = hashRequisicao;
+            this.dona = dona;
+            this.resultado = resultado;
+        }
+
+        public String hashRequisicao() {
+            return hashRequisicao;
+        }
+
+        // true apenas para quem criou a execução e deve de fato processar a requisição
+        public boolean dona() {
+            return dona;
+        }
+
+        public CompletableFuture<RespostaGravada> resultado() {
+            return resultado;
+        }
+
+        private Execucao comoAguardando() {
+            return new Execucao(hashRequisicao, false, resultado);
+        }
+    }
+
+    @Inject
+    RespostaIdempotenteRepository repository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "api.idempotencia.max-entradas", defaultValue = "10000")
+    long maxEntradas;
+
+    @ConfigProperty(name = "api.idempotencia.ttl", defaultValue = "24h")
+    Duration ttl;
+
+    @ConfigProperty(name = "api.idempotencia.persistente", defaultValue = "false")
+    boolean persistente;
+
+    private Cache<String, Execucao> execucoes;
+
+    @PostConstruct
+    void iniciar() {
+        execucoes = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Reserva a chave para uma nova execução ou devolve a execução já existente (em andamento ou concluída).
+     */
+    public Execucao reservar(String chave, String hashRequisicao) {
+        Execucao existente = execucoes.getIfPresent(chave);
+        if (existente == null && persistente) {
+            existente = carregar(chave);
+        }
+        if (existente != null) {
+            return existente.comoAguardando();
+        }
+        Execucao nova = new Execucao(hashRequisicao, true, new CompletableFuture<>());
+        Execucao concorrente = execucoes.asMap().putIfAbsent(chave, nova);
+        return concorrente == null ? nova : concorrente.comoAguardando();
+    }
+
+    public void concluir(String chave, Execucao execucao, RespostaGravada resposta) {
+        if (persistente) {
+            gravar(chave, execucao.hashRequisicao(), resposta);
+        }
+        execucao.resultado().complete(resposta);
+    }
+
+    /**
+     * Libera a chave sem gravar resposta (erro inesperado ou status fora de 2xx), permitindo que o cliente tente de novo.
+     */
+    public void descartar(String chave, Execucao execucao, Throwable erro) {
+        execucoes.asMap().remove(chave, execucao);
+        execucao.resultado().completeExceptionally(erro);
+    }
+
+    public long removerExpiradas() {
+        if (!persistente) {
+            return 0;
+        }
+        return QuarkusTransaction.requiringNew().call(repository::removerExpiradas);
+    }
+
+    private Execucao carregar(String chave) {
+        RespostaIdempotente gravada = QuarkusTransaction.requiringNew().call(() -> repository.buscarValida(chave));
+        if (gravada == null) {
+            return null;
+        }
+        RespostaGravada resposta = new RespostaGravada(gravada.getStatus(), gravada.getCorpo(),
+                gravada.getTipoConteudo(), gravada.getLocation());
+        Execucao execucao = new Execucao(gravada.getHashRequisicao(), false, CompletableFuture.completedFuture(resposta));
+        Execucao concorrente = execucoes.asMap().putIfAbsent(chave, execucao);
+        return concorrente == null ? execucao : concorrente;
+    }
+
+    private void gravar(String chave, String hashRequisicao, RespostaGravada resposta) {
+        try {
+            RespostaIdempotente registro = new RespostaIdempotente();
+            registro.setChave(chave);
+            registro.setHashRequisicao(hashRequisicao);
+            registro.setStatus(resposta.status());
+            registro.setLocation(resposta.location());
+            registro.setExpiraEm(LocalDateTime.now().plus(ttl));
+            Object corpo = resposta.corpo();
+            if (corpo instanceof String texto) {
+                registro.setCorpo(texto);
+                registro.setTipoConteudo(resposta.tipoConteudo());
+            } else if (corpo != null) {
+                registro.setCorpo(objectMapper.writeValueAsString(corpo));
+                registro.setTipoConteudo(MediaType.APPLICATION_JSON);
+            }
+            QuarkusTransaction.requiringNew().run(() -> repository.getEntityManager().merge(registro));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // A resposta continua disponível na memória; só a réplica entre instâncias fica sem ela
+            Log.warnf("Não foi possível gravar a resposta idempotente da chave %s: %s", chave, e.getMessage());
+        }
+    }
+}
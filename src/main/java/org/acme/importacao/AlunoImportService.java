@@ -0,0 +1,214 @@
+package org.acme.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.acme.DTO.ImportacaoResultadoDTO;
+import org.acme.DTO.InsertAlunoDTO;
+import org.acme.entities.Aluno;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importação em massa de alunos a partir de NDJSON (um objeto JSON por linha) ou CSV com cabeçalho.
+ * <p>
+ * A entrada é lida registro a registro e cada linha é validada isoladamente. As linhas válidas são gravadas
+ * em transações de {@code api.importacao.tamanho-lote} registros, com os INSERTs agrupados em batch JDBC
+ * ({@code quarkus.hibernate-orm.jdbc.statement-batch-size}). Uma falha ao gravar um lote rejeita apenas
+ * as linhas daquele lote; os lotes já confirmados permanecem.
+ */
+@ApplicationScoped
+public class AlunoImportService {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "api.importacao.tamanho-lote", defaultValue = "1000")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "api.importacao.max-erros", defaultValue = "1000")
+    int maxErros;
+
+    public ImportacaoResultadoDTO importarNdjson(InputStream entrada) throws IOException {
+        Importacao importacao = new Importacao();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linha;
+            int numero = 0;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                InsertAlunoDTO dto;
+                try {
+                    dto = objectMapper.readValue(linha, InsertAlunoDTO.class);
+                } catch (JsonProcessingException e) {
+                    importacao.rejeitar(numero, List.of(mensagemDeConversao(e)));
+                    continue;
+                }
+                importacao.adicionar(numero, dto);
+            }
+        }
+        importacao.gravarPendentes();
+        return importacao.resultado;
+    }
+
+    /**
+     * @throws IllegalArgumentException se a entrada estiver vazia
+     */
+    public ImportacaoResultadoDTO importarCsv(InputStream entrada) throws IOException {
+        Importacao importacao = new Importacao();
+        try (CsvReader csv = new CsvReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            List<String> cabecalho = csv.proximoRegistro();
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("O arquivo CSV está vazio; a primeira linha deve conter o cabeçalho.");
+            }
+            // Remove o BOM que alguns editores de planilha gravam no início do arquivo
+            cabecalho = cabecalho.stream().map(coluna -> coluna.replace("\uFEFF", "").trim()).toList();
+
+            while (true) {
+                List<String> campos;
+                try {
+                    campos = csv.proximoRegistro();
+                } catch (CsvReader.FormatoInvalidoException e) {
+                    // O restante da entrada pertence ao campo não fechado: encerra a leitura
+                    importacao.rejeitar(csv.linhaDoRegistro(), List.of(e.getMessage()));
+                    break;
+                }
+                if (campos == null) {
+                    break;
+                }
+                int numero = csv.linhaDoRegistro();
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+                if (campos.size() != cabecalho.size()) {
+                    importacao.rejeitar(numero, List.of("Número de colunas (" + campos.size()
+                            + ") diferente do cabeçalho (" + cabecalho.size() + ")."));
+                    continue;
+                }
+                Map<String, String> valores = new HashMap<>();
+                for (int i = 0; i < campos.size(); i++) {
+                    String valor = campos.get(i).trim();
+                    valores.put(cabecalho.get(i), valor.isEmpty() ? null : valor);
+                }
+                InsertAlunoDTO dto;
+                try {
+                    dto = objectMapper.convertValue(valores, InsertAlunoDTO.class);
+                } catch (IllegalArgumentException e) {
+                    importacao.rejeitar(numero, List.of(mensagemDeConversao(e)));
+                    continue;
+                }
+                importacao.adicionar(numero, dto);
+            }
+        }
+        importacao.gravarPendentes();
+        return importacao.resultado;
+    }
+
+    private static String mensagemDeConversao(Exception e) {
+        Throwable causa = e instanceof JsonMappingException ? e : e.getCause();
+        if (causa instanceof JsonMappingException mapeamento && !mapeamento.getPath().isEmpty()) {
+            String campo = mapeamento.getPath().get(mapeamento.getPath().size() - 1).getFieldName();
+            if (campo != null) {
+                return "Valor inválido para o campo " + campo + ".";
+            }
+        }
+        return e instanceof JsonProcessingException ? "JSON inválido." : "Registro inválido.";
+    }
+
+    private static Aluno toAluno(InsertAlunoDTO dto) {
+        Aluno aluno = new Aluno();
+        aluno.setNome(dto.getNome());
+        aluno.setIdade(dto.getIdade());
+        aluno.setDataNascimento(dto.getDataNascimento());
+        aluno.setNomeResponsavel(dto.getNomeResponsavel());
+        aluno.setTelefoneResponsavel(dto.getTelefoneResponsavel());
+        aluno.setEmailResponsavel(dto.getEmailResponsavel());
+        aluno.setEndereco(dto.getEndereco());
+        aluno.setObservacoes(dto.getObservacoes());
+        aluno.setAtivo(dto.getAtivo() != null ? dto.getAtivo() : true);
+        return aluno;
+    }
+
+    private record LinhaPendente(int linha, Aluno aluno) {
+    }
+
+    /**
+     * Estado de uma importação em andamento: o relatório e as linhas válidas ainda não gravadas.
+     */
+    private class Importacao {
+
+        private final ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        private final List<LinhaPendente> pendentes = new ArrayList<>(tamanhoLote);
+
+        void adicionar(int linha, InsertAlunoDTO dto) {
+            List<String> mensagens = validator.validate(dto).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            if (!mensagens.isEmpty()) {
+                rejeitar(linha, mensagens);
+                return;
+            }
+            resultado.setProcessados(resultado.getProcessados() + 1);
+            pendentes.add(new LinhaPendente(linha, toAluno(dto)));
+            if (pendentes.size() >= tamanhoLote) {
+                gravarPendentes();
+            }
+        }
+
+        void rejeitar(int linha, List<String> mensagens) {
+            resultado.setProcessados(resultado.getProcessados() + 1);
+            resultado.setRejeitados(resultado.getRejeitados() + 1);
+            if (resultado.getErros().size() < maxErros) {
+                resultado.getErros().add(new ImportacaoResultadoDTO.ErroLinha(linha, mensagens));
+            }
+        }
+
+        void gravarPendentes() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            try {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    // Os alunos importados não entram no cache de segundo nível (evita descartar as entradas usadas)
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                    pendentes.forEach(p -> entityManager.persist(p.aluno()));
+                });
+                resultado.setImportados(resultado.getImportados() + pendentes.size());
+            } catch (RuntimeException e) {
+                Log.warn("Falha ao gravar lote da importação de alunos", e);
+                String mensagem = "Falha ao gravar o lote que contém esta linha: " + e.getMessage();
+                // As linhas já foram contadas como processadas em adicionar()
+                resultado.setProcessados(resultado.getProcessados() - pendentes.size());
+                pendentes.forEach(p -> rejeitar(p.linha(), List.of(mensagem)));
+            }
+            pendentes.clear();
+        }
+    }
+}
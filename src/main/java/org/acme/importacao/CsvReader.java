@@ -0,0 +1,115 @@
+package org.acme.importacao;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor incremental de CSV (RFC 4180): campos entre aspas podem conter vírgulas, quebras de linha
+ * e aspas duplicadas. Lê um registro por vez, sem carregar o arquivo inteiro em memória.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final Reader reader;
+    private int linhaAtual = 1;
+    private int linhaDoRegistro;
+    private int proximo = -2;
+
+    public CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader, TAMANHO_BUFFER);
+    }
+
+    /**
+     * @return os campos do próximo registro, ou {@code null} ao fim da entrada
+     * @throws FormatoInvalidoException se um campo entre aspas não for fechado
+     */
+    public List<String> proximoRegistro() throws IOException {
+        int c = ler();
+        if (c == -1) {
+            return null;
+        }
+        linhaDoRegistro = linhaAtual;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        while (true) {
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new FormatoInvalidoException("Aspas não fechadas no registro iniciado na linha " + linhaDoRegistro);
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        c = seguinte;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int seguinte = ler();
+                    if (seguinte != '\n') {
+                        devolver(seguinte);
+                    }
+                }
+                if (c != -1) {
+                    linhaAtual++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    /**
+     * Linha (1-based) em que começa o último registro retornado por {@link #proximoRegistro()}.
+     */
+    public int linhaDoRegistro() {
+        return linhaDoRegistro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static class FormatoInvalidoException extends IOException {
+        public FormatoInvalidoException(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+    private int ler() throws IOException {
+        if (proximo != -2) {
+            int c = proximo;
+            proximo = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        proximo = c;
+    }
+}
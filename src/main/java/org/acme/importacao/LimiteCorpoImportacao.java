@@ -0,0 +1,70 @@
+package org.acme.importacao;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Limite de tamanho do corpo próprio da importação de alunos ({@code api.importacao.max-tamanho}), maior que o
+ * {@code quarkus.http.limits.max-body-size} global, que continua valendo para as demais rotas.
+ * <p>
+ * O Quarkus recusa, numa rota de ordem -2, todo corpo com {@code Content-Length} acima do limite global e, nos
+ * corpos sem tamanho declarado (chunked), deixa o limite no contexto para o stream que lê o corpo. Só nesta rota,
+ * o tamanho declarado é conferido antes (ordem -3) contra o limite da importação e escondido da verificação
+ * global; depois dela (ordem -1) o header é devolvido e o limite do stream passa a ser o da importação. O corpo
+ * continua sendo lido de forma incremental pelo {@code InputStream} do endpoint.
+ */
+@ApplicationScoped
+public class LimiteCorpoImportacao {
+
+    private static final String CAMINHO = "/v1/alunos/importacao";
+
+    // Mesma chave usada pelo Quarkus (VertxHttpRecorder.MAX_REQUEST_SIZE_KEY) para o limite do stream
+    private static final String LIMITE_STREAM = "io.quarkus.max-request-size";
+    private static final String TAMANHO_DECLARADO = LimiteCorpoImportacao.class.getName() + ".tamanho";
+
+    @ConfigProperty(name = "api.importacao.max-tamanho", defaultValue = "100M")
+    MemorySize maxTamanho;
+
+    void registrar(@Observes Router router) {
+        router.route(HttpMethod.POST, CAMINHO).order(-3).handler(this::conferirTamanhoDeclarado);
+        router.route(HttpMethod.POST, CAMINHO).order(-1).handler(this::aplicarLimite);
+    }
+
+    private void conferirTamanhoDeclarado(RoutingContext contexto) {
+        String tamanho = contexto.request().getHeader(HttpHeaderNames.CONTENT_LENGTH);
+        if (tamanho != null) {
+            long declarado;
+            try {
+                declarado = Long.parseLong(tamanho);
+            } catch (NumberFormatException e) {
+                contexto.fail(HttpResponseStatus.BAD_REQUEST.code());
+                return;
+            }
+            if (declarado > maxTamanho.asLongValue()) {
+                contexto.response().putHeader(HttpHeaderNames.CONNECTION, "close")
+                        .setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code())
+                        .end();
+                return;
+            }
+            contexto.put(TAMANHO_DECLARADO, tamanho);
+            contexto.request().headers().remove(HttpHeaderNames.CONTENT_LENGTH);
+        }
+        contexto.next();
+    }
+
+    private void aplicarLimite(RoutingContext contexto) {
+        String tamanho = contexto.get(TAMANHO_DECLARADO);
+        if (tamanho != null) {
+            contexto.request().headers().set(HttpHeaderNames.CONTENT_LENGTH, tamanho);
+        }
+        contexto.put(LIMITE_STREAM, maxTamanho.asLongValue());
+        contexto.next();
+    }
+}
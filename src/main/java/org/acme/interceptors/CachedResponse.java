@@ -0,0 +1,15 @@
+package org.acme.interceptors;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.*;
+
+/**
+ * Guarda a resposta 200 do endpoint de leitura e responde com ETag / 304 Not Modified enquanto os dados
+ * não mudarem. Ver {@link org.acme.cache.CacheDeRespostas}.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+public @interface CachedResponse {
+}
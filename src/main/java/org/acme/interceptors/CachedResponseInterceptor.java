@@ -0,0 +1,53 @@
+package org.acme.interceptors;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+import org.acme.cache.CacheDeRespostas;
+import org.acme.cache.RespostaEmCache;
+
+@CachedResponse
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class CachedResponseInterceptor {
+
+    @Inject
+    RespostaEmCache requisicao;
+
+    @Inject
+    CacheDeRespostas cacheDeRespostas;
+
+    @AroundInvoke
+    public Object intercept(InvocationContext context) throws Exception {
+        EntityTag etag = requisicao.etag();
+        // A ETag vem da versão dos dados no banco, igual em todas as instâncias: se o cliente já tem a versão
+        // atual, a resposta é 304 mesmo que o corpo não esteja guardado nesta instância
+        if (requisicao.naoModificado()) {
+            return responder(Response.notModified(etag));
+        }
+
+        CacheDeRespostas.Entrada entrada = requisicao.entrada();
+        if (entrada != null) {
+            return responder(Response.ok(entrada.corpo()).tag(etag));
+        }
+
+        Object result = context.proceed();
+        if (result instanceof Response response && response.getStatus() == Response.Status.OK.getStatusCode()
+                && response.hasEntity()) {
+            cacheDeRespostas.guardar(requisicao.chave(), requisicao.versao(), response.getEntity());
+            return responder(Response.ok(response.getEntity()).tag(etag));
+        }
+        return result;
+    }
+
+    private static Response responder(Response.ResponseBuilder builder) {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true); // o cliente pode guardar, mas deve revalidar com If-None-Match
+        return builder.cacheControl(cacheControl).build();
+    }
+}
@@ -1,42 +1,209 @@
 package org.acme.interceptors;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import java.util.UUID;
+import jakarta.ws.rs.core.UriInfo;
+import org.acme.auth.ChamadorApi;
+import org.acme.auth.ClienteApi;
+import org.acme.exceptions.ApiError;
+import org.acme.idempotencia.IdempotenciaStore;
+import org.acme.metricas.MetricasInterceptors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Com {@code Idempotency-Key}, a primeira requisição é executada e, se bem-sucedida (2xx), sua resposta
+ * (status, corpo e Location) é gravada no {@link IdempotenciaStore}; repetições com a mesma chave recebem a mesma resposta sem
+ * reexecutar, e duplicatas simultâneas aguardam a execução em andamento.
+ * <p>
+ * Roda antes de {@code @Transactional} para que a resposta só seja gravada após o commit e uma repetição
+ * não abra transação.
+ */
 @Idempotent
 @Interceptor
-@Priority(Interceptor.Priority.APPLICATION)
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
 public class IdempotencyInterceptor {
 
+    private static final String HEADER = "Idempotency-Key";
+    private static final String HEADER_REPETICAO = "Idempotency-Replayed";
+    private static final String ESCOPO_ANONIMO = "anonimo";
+
+    // Os endpoints v2 delegam para os controllers v1, também @Idempotent; só a chamada mais externa é controlada
+    private static final ThreadLocal<Boolean> EM_EXECUCAO = new ThreadLocal<>();
+
     @Context
     HttpHeaders headers;
 
+    @Context
+    UriInfo uriInfo;
+
+    @Inject
+    ChamadorApi chamador;
+
+    @Inject
+    IdempotenciaStore store;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MetricasInterceptors metricas;
+
+    @ConfigProperty(name = "api.idempotencia.espera-maxima", defaultValue = "30s")
+    Duration esperaMaxima;
+
     @AroundInvoke
     public Object intercept(InvocationContext context) throws Exception {
-        String idempotencyKey = headers.getHeaderString("Idempotency-Key");
-        
+        if (EM_EXECUCAO.get() != null) {
+            return context.proceed();
+        }
+        // A espera por uma execução em andamento com a mesma chave entra na sobrecarga
+        Sobrecarga medicao = new Sobrecarga();
+        try {
+            return interceptar(context, medicao);
+        } finally {
+            medicao.registrar(metricas.sobrecargaIdempotencia());
+        }
+    }
+
+    private Object interceptar(InvocationContext context, Sobrecarga medicao) throws Exception {
+        String idempotencyKey = headers.getHeaderString(HEADER);
+
         if (idempotencyKey == null || idempotencyKey.isEmpty()) {
-            idempotencyKey = UUID.randomUUID().toString();
+            return executar(context, medicao);
+        }
+
+        String chave = chamador.cliente().map(ClienteApi::id).orElse(ESCOPO_ANONIMO) + ":" + idempotencyKey;
+        String hashRequisicao = hashRequisicao(context);
+
+        while (true) {
+            IdempotenciaStore.Execucao execucao = store.reservar(chave, hashRequisicao);
+            if (!execucao.hashRequisicao().equals(hashRequisicao)) {
+                return erro(422, "Unprocessable Entity",
+                        "A Idempotency-Key já foi usada em uma requisição diferente.", idempotencyKey);
+            }
+            if (!execucao.dona()) {
+                try {
+                    IdempotenciaStore.RespostaGravada resposta = execucao.resultado()
+                            .get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+                    return repetir(resposta, idempotencyKey);
+                } catch (ExecutionException e) {
+                    // A execução original falhou e liberou a chave: esta requisição tenta de novo
+                    continue;
+                } catch (TimeoutException e) {
+                    return erro(409, "Conflict",
+                            "Uma requisição com esta Idempotency-Key ainda está em processamento.", idempotencyKey);
+                }
+            }
+
+            Object result;
+            try {
+                result = executar(context, medicao);
+            } catch (Exception e) {
+                store.descartar(chave, execucao, e);
+                throw e;
+            }
+            // Só sucessos são reproduzidos: um 4xx de regra de negócio (ex.: escola lotada) pode deixar de ocorrer,
+            // então a chave é liberada para que a repetição seja executada de novo
+            if (result instanceof Response response
+                    && response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
+                store.concluir(chave, execucao, new IdempotenciaStore.RespostaGravada(response.getStatus(),
+                        response.getEntity(),
+                        response.getMediaType() == null ? null : response.getMediaType().toString(),
+                        response.getLocation() == null ? null : response.getLocation().toString()));
+            } else {
+                store.descartar(chave, execucao, new IllegalStateException("Resposta não reproduzível"));
+            }
+            return comChave(result, idempotencyKey);
         }
+    }
 
+    private static Object executar(InvocationContext context, Sobrecarga medicao) throws Exception {
+        EM_EXECUCAO.set(Boolean.TRUE);
         try {
-            Object result = context.proceed();
+            return medicao.prosseguir(context);
+        } finally {
+            EM_EXECUCAO.remove();
+        }
+    }
 
-            if (result instanceof Response response) {
-                return Response.fromResponse(response)
-                    .header("Idempotency-Key", idempotencyKey)
+    private static Object comChave(Object result, String idempotencyKey) {
+        if (result instanceof Response response) {
+            return Response.fromResponse(response)
+                    .header(HEADER, idempotencyKey)
                     .build();
-            }
-            
-            return result;
-        } catch (Exception e) {
-            throw e;
+        }
+        return result;
+    }
+
+    private static Response repetir(IdempotenciaStore.RespostaGravada resposta, String idempotencyKey) {
+        Response.ResponseBuilder builder = Response.status(resposta.status())
+                .entity(resposta.corpo())
+                .header(HEADER, idempotencyKey)
+                .header(HEADER_REPETICAO, "true");
+        if (resposta.tipoConteudo() != null) {
+            builder.type(resposta.tipoConteudo());
+        }
+        if (resposta.location() != null) {
+            builder.header(HttpHeaders.LOCATION, resposta.location());
+        }
+        return builder.build();
+    }
+
+    private Response erro(int status, String reason, String mensagem, String idempotencyKey) {
+        return Response.status(status)
+                .entity(new ApiError(status, reason, mensagem, uriInfo.getPath()))
+                .type(MediaType.APPLICATION_JSON)
+                .header(HEADER, idempotencyKey)
+                .build();
+    }
+
+    // Identifica a requisição pelo método Java, caminho, query e parâmetros já desserializados (DTOs em JSON)
+    private String hashRequisicao(InvocationContext context) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(context.getMethod().toGenericString().getBytes(StandardCharsets.UTF_8));
+        digest.update(uriInfo.getRequestUri().getRawPath().getBytes(StandardCharsets.UTF_8));
+        String query = uriInfo.getRequestUri().getRawQuery();
+        if (query != null) {
+            digest.update(query.getBytes(StandardCharsets.UTF_8));
+        }
+        for (Object parametro : context.getParameters()) {
+            digest.update((byte) 0);
+            digest.update(representacao(parametro).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String representacao(Object parametro) {
+        if (parametro == null) {
+            return "null";
+        }
+        // Corpos em stream (importação) não podem ser lidos aqui sem consumi-los
+        if (parametro instanceof InputStream || parametro instanceof MediaType) {
+            return parametro.getClass().getName();
+        }
+        try {
+            return objectMapper.writeValueAsString(parametro);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(parametro);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package org.acme.interceptors;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.*;
+
+/**
+ * Registra quantidade e duração das chamadas a cada método público da classe anotada
+ * (métrica {@code api.repositorio.chamadas}, com as tags {@code repositorio}, {@code metodo} e {@code resultado}).
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+public @interface Metered {
+}
@@ -0,0 +1,71 @@
+package org.acme.interceptors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as chamadas aos repositórios. Só a chamada mais externa de cada thread é medida: o que um método do
+ * repositório faz por dentro ({@code find}, {@code update}, outro repositório...) entra no tempo dele.
+ */
+@Metered
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_AFTER)
+public class MeteredInterceptor {
+
+    static final String METRICA = "api.repositorio.chamadas";
+
+    private static final ThreadLocal<Boolean> EM_MEDICAO = new ThreadLocal<>();
+
+    private final Map<Method, Timer> sucessos = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> erros = new ConcurrentHashMap<>();
+
+    @Inject
+    MeterRegistry registry;
+
+    @AroundInvoke
+    public Object medir(InvocationContext context) throws Exception {
+        Method metodo = context.getMethod();
+        // getEntityManager() é gerado pelo Panache na classe do repositório, mas não executa consulta
+        if (EM_MEDICAO.get() != null || !metodo.getDeclaringClass().isAnnotationPresent(Metered.class)
+                || metodo.getName().equals("getEntityManager")) {
+            return context.proceed();
+        }
+        EM_MEDICAO.set(Boolean.TRUE);
+        long inicio = System.nanoTime();
+        try {
+            Object result = context.proceed();
+            registrar(sucessos, metodo, "sucesso", inicio);
+            return result;
+        } catch (Exception e) {
+            registrar(erros, metodo, "erro", inicio);
+            throw e;
+        } finally {
+            EM_MEDICAO.remove();
+        }
+    }
+
+    // Timers guardados por método: evita montar o Meter.Id a cada chamada
+    private void registrar(Map<Method, Timer> timers, Method metodo, String resultado, long inicio) {
+        timers.computeIfAbsent(metodo, m -> timer(m, resultado))
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(Method metodo, String resultado) {
+        return Timer.builder(METRICA)
+                .description("Chamadas aos métodos dos repositórios")
+                .tag("repositorio", metodo.getDeclaringClass().getSimpleName())
+                .tag("metodo", metodo.getName())
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
@@ -0,0 +1,30 @@
+package org.acme.interceptors;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.*;
+
+/**
+ * Orçamento de SQL de uma rota: comandos executados, entidades carregadas e coleções buscadas à parte
+ * (inicialização de coleção LAZY) por requisição. A anotação no método tem precedência sobre a da classe;
+ * {@link #SEM_LIMITE} dispensa o limite nas rotas cujo volume depende do tamanho da entrada (lotes, importação).
+ * Ver {@link QueryBudgetInterceptor}.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+public @interface QueryBudget {
+
+    int SEM_LIMITE = -1;
+
+    @Nonbinding
+    int comandos() default 10;
+
+    @Nonbinding
+    int entidades() default 100;
+
+    @Nonbinding
+    int colecoes() default 0;
+}
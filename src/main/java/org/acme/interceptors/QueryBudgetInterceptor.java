@@ -0,0 +1,107 @@
+package org.acme.interceptors;
+
+import io.quarkus.logging.Log;
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.core.Response;
+import org.acme.exceptions.OrcamentoSqlExcedidoException;
+import org.acme.sql.EstatisticasSql;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conta o SQL da requisição ({@link EstatisticasSql}) e o compara com o {@link QueryBudget} da rota. Também aponta
+ * um possível N+1 quando o mesmo SELECT se repete mais de {@code api.sql.n-mais-um.repeticoes} vezes.
+ * <p>
+ * Fora dos testes um estouro só gera um aviso no log; com {@code api.sql.orcamento.falhar} a requisição falha,
+ * para que o teste que passa pela rota acuse a regressão. Com {@code api.sql.estatisticas.headers} os números
+ * voltam nos headers {@code X-SQL-*}.
+ * <p>
+ * Roda antes de {@code @Transactional} para contar também o flush do commit. Nos endpoints v2 que delegam
+ * para os controllers v1, vale o orçamento da chamada mais externa.
+ */
+@QueryBudget
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 150)
+public class QueryBudgetInterceptor {
+
+    @ConfigProperty(name = "api.sql.orcamento.habilitado", defaultValue = "true")
+    boolean habilitado;
+
+    @ConfigProperty(name = "api.sql.orcamento.falhar", defaultValue = "false")
+    boolean falhar;
+
+    @ConfigProperty(name = "api.sql.n-mais-um.repeticoes", defaultValue = "10")
+    int repeticoesNMaisUm;
+
+    @ConfigProperty(name = "api.sql.estatisticas.headers", defaultValue = "false")
+    boolean headers;
+
+    @AroundInvoke
+    public Object controlar(InvocationContext context) throws Exception {
+        if (!habilitado || EstatisticasSql.atual() != null) {
+            return context.proceed();
+        }
+        EstatisticasSql estatisticas = EstatisticasSql.iniciar();
+        Object result;
+        try {
+            result = context.proceed();
+        } finally {
+            EstatisticasSql.encerrar();
+        }
+
+        String rota = context.getMethod().getDeclaringClass().getSimpleName() + "." + context.getMethod().getName();
+        Log.debugf("%s: %s", rota, estatisticas);
+        List<String> estouros = estouros(orcamento(context), estatisticas);
+        if (!estouros.isEmpty()) {
+            String mensagem = "Orçamento de SQL excedido em " + rota + ": " + String.join("; ", estouros);
+            if (falhar) {
+                throw new OrcamentoSqlExcedidoException(mensagem);
+            }
+            Log.warn(mensagem);
+        }
+
+        if (headers && result instanceof Response response) {
+            return Response.fromResponse(response)
+                    .header("X-SQL-Comandos", estatisticas.comandos())
+                    .header("X-SQL-Entidades", estatisticas.entidades())
+                    .header("X-SQL-Colecoes", estatisticas.colecoes())
+                    .build();
+        }
+        return result;
+    }
+
+    private List<String> estouros(QueryBudget orcamento, EstatisticasSql estatisticas) {
+        List<String> estouros = new ArrayList<>();
+        if (excede(estatisticas.comandos(), orcamento.comandos())) {
+            estouros.add(estatisticas.comandos() + " comandos (limite " + orcamento.comandos() + ")");
+        }
+        if (excede(estatisticas.entidades(), orcamento.entidades())) {
+            estouros.add(estatisticas.entidades() + " entidades carregadas (limite " + orcamento.entidades() + ")");
+        }
+        if (excede(estatisticas.colecoes(), orcamento.colecoes())) {
+            estouros.add(estatisticas.colecoes() + " coleções buscadas (limite " + orcamento.colecoes() + ")");
+        }
+        if (estatisticas.repeticoesMaximas() > repeticoesNMaisUm) {
+            estouros.add("possível N+1, o mesmo SELECT executado " + estatisticas.repeticoesMaximas() + " vezes: "
+                    + estatisticas.selectMaisRepetido());
+        }
+        return estouros;
+    }
+
+    private static boolean excede(int valor, int limite) {
+        return limite != QueryBudget.SEM_LIMITE && valor > limite;
+    }
+
+    private static QueryBudget orcamento(InvocationContext context) {
+        QueryBudget anotacao = context.getMethod().getAnnotation(QueryBudget.class);
+        if (anotacao == null) {
+            anotacao = context.getMethod().getDeclaringClass().getAnnotation(QueryBudget.class);
+        }
+        return anotacao;
+    }
+}
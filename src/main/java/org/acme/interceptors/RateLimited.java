@@ -0,0 +1,21 @@
+package org.acme.interceptors;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+import org.acme.ratelimit.GrupoLimite;
+
+import java.lang.annotation.*;
+
+/**
+ * Limita as requisições por cliente (API key ou, sem ela, IP) no orçamento do grupo. A anotação no método
+ * tem precedência sobre a da classe.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+public @interface RateLimited {
+
+    @Nonbinding
+    GrupoLimite value() default GrupoLimite.LEITURA;
+}
@@ -0,0 +1,148 @@
+package org.acme.interceptors;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.UriInfo;
+import org.acme.auth.ChamadorApi;
+import org.acme.auth.ClienteApi;
+import org.acme.cache.RespostaEmCache;
+import org.acme.exceptions.ApiError;
+import org.acme.metricas.MetricasInterceptors;
+import org.acme.ratelimit.ConsumoLimite;
+import org.acme.ratelimit.GrupoLimite;
+import org.acme.ratelimit.LimitadorRequisicoes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Aplica o {@link LimitadorRequisicoes} e informa o orçamento nos headers {@code RateLimit-Limit},
+ * {@code RateLimit-Remaining} e {@code RateLimit-Reset}; quando esgotado, responde 429 com {@code Retry-After}.
+ * <p>
+ * Roda antes dos demais interceptores para que uma requisição rejeitada não chegue a abrir transação. Em endpoints
+ * {@link CachedResponse}, uma requisição que vai ser atendida pelo cache (304 ou corpo guardado) não executa o
+ * relatório e é cobrada no grupo LEITURA.
+ */
+@RateLimited
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 50)
+public class RateLimitedInterceptor {
+
+    @Context
+    UriInfo uriInfo;
+
+    @Inject
+    RoutingContext routingContext;
+
+    @Inject
+    ChamadorApi chamador;
+
+    @Inject
+    LimitadorRequisicoes limitador;
+
+    @Inject
+    MetricasInterceptors metricas;
+
+    @Inject
+    RespostaEmCache respostaEmCache;
+
+    @ConfigProperty(name = "api.rate-limit.habilitado", defaultValue = "true")
+    boolean habilitado;
+
+    @AroundInvoke
+    public Object limitar(InvocationContext context) throws Exception {
+        if (!habilitado) {
+            return context.proceed();
+        }
+        ClienteApi cliente = chamador.cliente().orElse(null);
+        String identificador = cliente != null
+                ? "cliente:" + cliente.id()
+                : "ip:" + routingContext.request().remoteAddress().hostAddress();
+        GrupoLimite grupo = grupo(context);
+        if (grupo != GrupoLimite.LEITURA && emCache(context) && respostaEmCache.atendidaSemExecutar()) {
+            grupo = GrupoLimite.LEITURA;
+        }
+        ConsumoLimite consumo = limitador.consumir(identificador, cliente, grupo);
+
+        if (!consumo.permitido()) {
+            metricas.rejeicaoRateLimit(grupo);
+            Response rejeicao = comHeaders(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .entity(new ApiError(429, "Too Many Requests",
+                            "Limite de requisições excedido. Tente novamente em " + consumo.segundosParaRetry() + " segundos.",
+                            uriInfo.getPath()))
+                    .type(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.RETRY_AFTER, consumo.segundosParaRetry()), consumo)
+                    .build();
+            // Endpoints assíncronos (ex.: long-polling) declaram CompletionStage<Response> ou Uni<Response>;
+            // streams (Multi) não têm onde devolver a Response, então a rejeição vai como exceção
+            Class<?> tipoRetorno = context.getMethod().getReturnType();
+            if (CompletionStage.class.isAssignableFrom(tipoRetorno)) {
+                return CompletableFuture.completedFuture(rejeicao);
+            }
+            if (Uni.class.isAssignableFrom(tipoRetorno)) {
+                return Uni.createFrom().item(rejeicao);
+            }
+            if (Multi.class.isAssignableFrom(tipoRetorno)) {
+                throw new WebApplicationException(rejeicao);
+            }
+            return rejeicao;
+        }
+
+        Object result = context.proceed();
+        if (result instanceof Response response) {
+            return comHeaders(Response.fromResponse(response), consumo).build();
+        }
+        if (result instanceof CompletionStage<?> estagio) {
+            return estagio.thenApply(valor -> comHeaders(valor, consumo));
+        }
+        if (result instanceof Uni<?> uni) {
+            return uni.map(valor -> comHeaders(valor, consumo));
+        }
+        if (result instanceof Multi<?>) {
+            // Os headers da resposta em stream só são enviados com o primeiro item
+            routingContext.response().headers()
+                    .set("RateLimit-Limit", String.valueOf(consumo.capacidade()))
+                    .set("RateLimit-Remaining", String.valueOf(consumo.restantes()))
+                    .set("RateLimit-Reset", String.valueOf(consumo.segundosAteEncher()));
+        }
+        return result;
+    }
+
+    private static GrupoLimite grupo(InvocationContext context) {
+        RateLimited anotacao = context.getMethod().getAnnotation(RateLimited.class);
+        if (anotacao == null) {
+            anotacao = context.getMethod().getDeclaringClass().getAnnotation(RateLimited.class);
+        }
+        return anotacao == null ? GrupoLimite.LEITURA : anotacao.value();
+    }
+
+    private static boolean emCache(InvocationContext context) {
+        return context.getMethod().isAnnotationPresent(CachedResponse.class)
+                || context.getMethod().getDeclaringClass().isAnnotationPresent(CachedResponse.class);
+    }
+
+    private static Object comHeaders(Object valor, ConsumoLimite consumo) {
+        return valor instanceof Response response
+                ? comHeaders(Response.fromResponse(response), consumo).build()
+                : valor;
+    }
+
+    private static Response.ResponseBuilder comHeaders(Response.ResponseBuilder builder, ConsumoLimite consumo) {
+        return builder
+                .header("RateLimit-Limit", consumo.capacidade())
+                .header("RateLimit-Remaining", consumo.restantes())
+                .header("RateLimit-Reset", consumo.segundosAteEncher());
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme.interceptors;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.interceptor.InvocationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo gasto dentro de um interceptor descontando a execução do método interceptado
+ * (métrica {@code api.interceptor.sobrecarga}). Uma instância por invocação.
+ */
+final class Sobrecarga {
+
+    private final long inicio = System.nanoTime();
+    private long tempoNoMetodo;
+
+    Object prosseguir(InvocationContext context) throws Exception {
+        long chamada = System.nanoTime();
+        try {
+            return context.proceed();
+        } finally {
+            tempoNoMetodo += System.nanoTime() - chamada;
+        }
+    }
+
+    void registrar(Timer timer) {
+        timer.record(System.nanoTime() - inicio - tempoNoMetodo, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,24 @@
+package org.acme.jobs;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.acme.entities.Escola;
+
+/**
+ * Expiração por escrita da região de {@link Escola} no cache de segundo nível. O cache local do Quarkus só expira
+ * entradas ociosas, então uma escola consultada o tempo todo nunca sairia do cache; com várias instâncias, as
+ * alterações feitas em outra (capacidade, contador de alunos ativos) ficariam invisíveis aqui indefinidamente.
+ */
+@ApplicationScoped
+public class ExpiracaoCacheEscolasJob {
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    @Scheduled(every = "{api.cache.escolas.expiracao}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expirar() {
+        entityManagerFactory.getCache().evict(Escola.class);
+    }
+}
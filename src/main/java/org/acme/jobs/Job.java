@@ -0,0 +1,151 @@
+package org.acme.jobs;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Estado de um relatório/exportação assíncrono. As transições são sincronizadas porque o worker,
+ * o cancelamento e a limpeza por TTL podem alterar o mesmo job em threads diferentes.
+ */
+public class Job {
+
+    public enum Status {
+        PENDENTE, EXECUTANDO, CONCLUIDO, FALHOU, CANCELADO;
+
+        public boolean isFinal() {
+            return this == CONCLUIDO || this == FALHOU || this == CANCELADO;
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String tenant;
+    private final TipoJob tipo;
+    private final Map<String, String> parametros;
+    private final LocalDateTime criadoEm = LocalDateTime.now();
+
+    private Status status = Status.PENDENTE;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime concluidoEm;
+    private String erro;
+    private Path arquivo;
+    private long tamanhoBytes;
+    private Future<?> execucao;
+
+    // Completa quando o job chega a um estado final; usado no long-polling
+    private final CompletableFuture<Job> termino = new CompletableFuture<>();
+
+    public Job(String tenant, TipoJob tipo, Map<String, String> parametros) {
+        this.tenant = tenant;
+        this.tipo = tipo;
+        this.parametros = Collections.unmodifiableMap(new HashMap<>(parametros));
+    }
+
+    synchronized boolean iniciar() {
+        if (status != Status.PENDENTE) {
+            return false;
+        }
+        status = Status.EXECUTANDO;
+        iniciadoEm = LocalDateTime.now();
+        return true;
+    }
+
+    synchronized boolean concluir(Path arquivo, long tamanhoBytes) {
+        if (!finalizar(Status.CONCLUIDO)) {
+            return false;
+        }
+        this.arquivo = arquivo;
+        this.tamanhoBytes = tamanhoBytes;
+        return true;
+    }
+
+    synchronized boolean falhar(String erro) {
+        if (!finalizar(Status.FALHOU)) {
+            return false;
+        }
+        this.erro = erro;
+        return true;
+    }
+
+    synchronized boolean cancelar() {
+        if (!finalizar(Status.CANCELADO)) {
+            return false;
+        }
+        if (execucao != null) {
+            execucao.cancel(true);
+        }
+        return true;
+    }
+
+    private boolean finalizar(Status novoStatus) {
+        if (status.isFinal()) {
+            return false;
+        }
+        status = novoStatus;
+        concluidoEm = LocalDateTime.now();
+        termino.complete(this);
+        return true;
+    }
+
+    synchronized void setExecucao(Future<?> execucao) {
+        this.execucao = execucao;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getTenant() {
+        return tenant;
+    }
+
+    public TipoJob getTipo() {
+        return tipo;
+    }
+
+    public Map<String, String> getParametros() {
+        return parametros;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized LocalDateTime getIniciadoEm() {
+        return iniciadoEm;
+    }
+
+    public synchronized LocalDateTime getConcluidoEm() {
+        return concluidoEm;
+    }
+
+    public synchronized String getErro() {
+        return erro;
+    }
+
+    public synchronized long getTamanhoBytes() {
+        return tamanhoBytes;
+    }
+
+    @JsonIgnore
+    public synchronized Path getArquivo() {
+        return arquivo;
+    }
+
+    @JsonIgnore
+    public CompletableFuture<Job> getTermino() {
+        return termino;
+    }
+}
@@ -0,0 +1,358 @@
+package org.acme.jobs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.entities.Matricula;
+import org.acme.exceptions.LimiteDeJobsException;
+import org.acme.export.CsvExportService;
+import org.acme.repositories.EscolaRepository;
+import org.acme.repositories.MatriculaRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa relatórios e exportações fora da thread da requisição.
+ * <p>
+ * Os jobs rodam em um pool limitado ({@code api.jobs.threads}, com fila de {@code api.jobs.fila}), e cada tenant
+ * pode ter no máximo {@code api.jobs.max-por-tenant} jobs pendentes ou em execução. O resultado é gravado em um
+ * arquivo local e removido, junto com o job, {@code api.jobs.ttl} depois do término.
+ */
+@ApplicationScoped
+public class JobService {
+
+    private static final int TAMANHO_PAGINA_EVASAO = 1000;
+
+    @Inject
+    EscolaRepository escolaRepository;
+
+    @Inject
+    MatriculaRepository matriculaRepository;
+
+    @Inject
+    CsvExportService csvExportService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "api.jobs.threads", defaultValue = "2")
+    int threads;
+
+    @ConfigProperty(name = "api.jobs.fila", defaultValue = "50")
+    int tamanhoFila;
+
+    @ConfigProperty(name = "api.jobs.max-por-tenant", defaultValue = "2")
+    int maxPorTenant;
+
+    @ConfigProperty(name = "api.jobs.ttl", defaultValue = "1h")
+    Duration ttl;
+
+    @ConfigProperty(name = "api.jobs.diretorio")
+    Optional<Path> diretorioConfigurado;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Jobs pendentes ou em execução por tenant; tenants sem jobs ativos saem do mapa
+    private final Map<String, Integer> ativosPorTenant = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private Path diretorio;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        diretorio = diretorioConfigurado.orElse(Path.of(System.getProperty("java.io.tmpdir"), "api-escola-jobs"));
+        Files.createDirectories(diretorio);
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "relatorios-job-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::descartar);
+    }
+
+    /**
+     * Valida os parâmetros e enfileira o job.
+     *
+     * @throws IllegalArgumentException         se os parâmetros forem inválidos
+     * @throws LimiteDeJobsException            se o tenant já atingiu o limite de jobs simultâneos
+     * @throws RejectedExecutionException        se a fila do executor estiver cheia
+     */
+    public Job submeter(String tenant, TipoJob tipo, Map<String, String> parametros) {
+        Map<String, String> params = parametros == null ? Map.of() : parametros;
+        validar(tipo, params);
+
+        if (!reservarVaga(tenant)) {
+            throw new LimiteDeJobsException("Limite de " + maxPorTenant
+                    + " jobs simultâneos por cliente atingido. Aguarde a conclusão ou cancele um job.");
+        }
+
+        Job job = new Job(tenant, tipo, params);
+        jobs.put(job.getId(), job);
+        try {
+            job.setExecucao(executor.submit(() -> executar(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            liberarVaga(tenant);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @return o job, se existir e pertencer ao tenant
+     */
+    public Optional<Job> buscar(String tenant, String id) {
+        return Optional.ofNullable(jobs.get(id)).filter(job -> job.getTenant().equals(tenant));
+    }
+
+    public Optional<Job> cancelar(String tenant, String id) {
+        Optional<Job> job = buscar(tenant, id);
+        job.ifPresent(j -> {
+            if (j.cancelar()) {
+                liberarVaga(j);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Remove os jobs finalizados há mais de {@code api.jobs.ttl}, apagando os arquivos de resultado.
+     *
+     * @return quantidade de jobs removidos
+     */
+    public int removerExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(ttl);
+        int removidos = 0;
+        for (Job job : jobs.values()) {
+            LocalDateTime concluidoEm = job.getConcluidoEm();
+            if (job.getStatus().isFinal() && concluidoEm != null && concluidoEm.isBefore(limite)) {
+                jobs.remove(job.getId());
+                descartar(job);
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+
+    private void executar(Job job) {
+        if (!job.iniciar()) {
+            return;
+        }
+        Path arquivo = diretorio.resolve(job.getId() + job.getTipo().getExtensao());
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(arquivo))) {
+                gerar(job, output);
+            }
+            if (job.concluir(arquivo, Files.size(arquivo))) {
+                liberarVaga(job);
+            } else {
+                // Cancelado durante a execução
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (Exception e) {
+            apagar(arquivo);
+            if (job.falhar(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())) {
+                Log.errorf(e, "Falha no job %s (%s)", job.getId(), job.getTipo());
+                liberarVaga(job);
+            }
+        }
+    }
+
+    private void gerar(Job job, OutputStream output) throws IOException {
+        Map<String, String> params = job.getParametros();
+        switch (job.getTipo()) {
+            case RANKING_ESCOLAS -> {
+                Integer limite = inteiro(params, "limit");
+                List<Map<String, Object>> ranking = QuarkusTransaction.requiringNew().call(() -> escolaRepository.ranking(limite));
+                objectMapper.writeValue(output, ranking);
+            }
+            case EVASAO_ALUNOS -> {
+                LocalDate inicio = data(params, "dataInicio");
+                LocalDate fim = data(params, "dataFim");
+                try (JsonGenerator json = objectMapper.getFactory().createGenerator(output)) {
+                    json.writeStartArray();
+                    QuarkusTransaction.requiringNew().run(() -> escreverEvasao(json, inicio, fim));
+                    json.writeEndArray();
+                }
+            }
+            case CRESCIMENTO_ESCOLAS -> {
+                LocalDate inicio = data(params, "dataInicio");
+                LocalDate fim = data(params, "dataFim");
+                List<Map<String, Object>> crescimento = QuarkusTransaction.requiringNew()
+                        .call(() -> escolaRepository.crescimento(inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay()));
+                for (Map<String, Object> linha : crescimento) {
+                    linha.put("periodoInicio", inicio.toString());
+                    linha.put("periodoFim", fim.toString());
+                }
+                objectMapper.writeValue(output, crescimento);
+            }
+            case EXPORT_ALUNOS -> csvExportService.exportarAlunos(output);
+            case EXPORT_ESCOLAS -> csvExportService.exportarEscolas(output);
+            case EXPORT_MATRICULAS -> {
+                LocalDate inicio = data(params, "dataInicio");
+                LocalDate fim = data(params, "dataFim");
+                csvExportService.exportarMatriculas(output,
+                        inicio != null ? inicio.atStartOfDay() : null,
+                        fim != null ? fim.plusDays(1).atStartOfDay() : null,
+                        status(params));
+            }
+        }
+    }
+
+    private void escreverEvasao(JsonGenerator json, LocalDate inicio, LocalDate fim) {
+        LocalDateTime inicioPeriodo = inicio.atStartOfDay();
+        LocalDateTime fimPeriodo = fim.plusDays(1).atStartOfDay();
+        Long aposId = null;
+        try {
+            while (true) {
+                List<Map<String, Object>> pagina = matriculaRepository.listEvasao(inicioPeriodo, fimPeriodo, aposId, TAMANHO_PAGINA_EVASAO);
+                for (Map<String, Object> linha : pagina) {
+                    json.writeObject(linha);
+                }
+                if (pagina.size() < TAMANHO_PAGINA_EVASAO || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                aposId = (Long) pagina.get(pagina.size() - 1).get("matriculaId");
+                matriculaRepository.getEntityManager().clear();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void validar(TipoJob tipo, Map<String, String> params) {
+        switch (tipo) {
+            case RANKING_ESCOLAS -> {
+                Integer limite = inteiro(params, "limit");
+                if (limite != null && limite < 1) {
+                    throw new IllegalArgumentException("O parâmetro limit deve ser maior que zero.");
+                }
+            }
+            case EVASAO_ALUNOS, CRESCIMENTO_ESCOLAS -> {
+                if (params.get("dataInicio") == null || params.get("dataFim") == null) {
+                    throw new IllegalArgumentException("dataInicio e dataFim são obrigatórios.");
+                }
+                validarPeriodo(params);
+            }
+            case EXPORT_MATRICULAS -> {
+                validarPeriodo(params);
+                status(params);
+            }
+            case EXPORT_ALUNOS, EXPORT_ESCOLAS -> {
+            }
+        }
+    }
+
+    private static void validarPeriodo(Map<String, String> params) {
+        LocalDate inicio = data(params, "dataInicio");
+        LocalDate fim = data(params, "dataFim");
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("dataInicio não pode ser posterior a dataFim.");
+        }
+    }
+
+    private static LocalDate data(Map<String, String> params, String nome) {
+        String valor = params.get(nome);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de data inválido em " + nome + ". Use o formato YYYY-MM-DD (ISO_LOCAL_DATE).");
+        }
+    }
+
+    private static Integer inteiro(Map<String, String> params, String nome) {
+        String valor = params.get(nome);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("O parâmetro " + nome + " deve ser um número inteiro.");
+        }
+    }
+
+    private static Matricula.StatusMatricula status(Map<String, String> params) {
+        String valor = params.get("status");
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Matricula.StatusMatricula.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + valor + ".");
+        }
+    }
+
+    private boolean reservarVaga(String tenant) {
+        AtomicBoolean reservada = new AtomicBoolean();
+        ativosPorTenant.compute(tenant, (t, ativos) -> {
+            int atuais = ativos == null ? 0 : ativos;
+            if (atuais >= maxPorTenant) {
+                return ativos;
+            }
+            reservada.set(true);
+            return atuais + 1;
+        });
+        return reservada.get();
+    }
+
+    private void liberarVaga(Job job) {
+        liberarVaga(job.getTenant());
+    }
+
+    private void liberarVaga(String tenant) {
+        ativosPorTenant.computeIfPresent(tenant, (t, ativos) -> ativos > 1 ? ativos - 1 : null);
+    }
+
+    private void descartar(Job job) {
+        if (job.cancelar()) {
+            liberarVaga(job);
+        }
+        if (job.getArquivo() != null) {
+            apagar(job.getArquivo());
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            Log.warnf("Não foi possível remover o arquivo de resultado %s: %s", arquivo, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.acme.jobs;
+
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.idempotencia.IdempotenciaStore;
+
+/**
+ * Remove do banco as respostas idempotentes expiradas (só há registros com {@code api.idempotencia.persistente=true}).
+ */
+@ApplicationScoped
+public class LimpezaIdempotenciaJob {
+
+    @Inject
+    IdempotenciaStore idempotenciaStore;
+
+    @Scheduled(every = "{api.idempotencia.limpeza.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void limpar() {
+        long removidas = idempotenciaStore.removerExpiradas();
+        if (removidas > 0) {
+            Log.infof("%d respostas idempotentes expiradas removidas", removidas);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.acme.jobs;
+
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Remove os jobs de relatório/exportação finalizados há mais de {@code api.jobs.ttl} e seus arquivos de resultado.
+ */
+@ApplicationScoped
+public class LimpezaJobsJob {
+
+    @Inject
+    JobService jobService;
+
+    @Scheduled(every = "{api.jobs.limpeza.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void limpar() {
+        int removidos = jobService.removerExpirados();
+        if (removidos > 0) {
+            Log.infof("%d jobs expirados removidos", removidos);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.acme.jobs;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.metricas.MetricasEscolas;
+
+/**
+ * Atualiza periodicamente o gauge de matrículas ativas por escola.
+ */
+@ApplicationScoped
+public class MetricasEscolasJob {
+
+    @Inject
+    MetricasEscolas metricasEscolas;
+
+    @Scheduled(every = "{api.metricas.escolas.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void atualizar() {
+        metricasEscolas.atualizar();
+    }
+}
@@ -0,0 +1,21 @@
+package org.acme.jobs;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.auth.RegistroApiKeys;
+
+/**
+ * Relê o arquivo de API keys ({@code api.auth.arquivo}) quando ele é alterado, para rotacionar chaves sem reinício.
+ */
+@ApplicationScoped
+public class RecargaApiKeysJob {
+
+    @Inject
+    RegistroApiKeys registroApiKeys;
+
+    @Scheduled(every = "{api.auth.recarga.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void recarregar() {
+        registroApiKeys.recarregarSeAlterado();
+    }
+}
@@ -0,0 +1,30 @@
+package org.acme.jobs;
+
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.acme.repositories.EscolaRepository;
+
+import java.util.List;
+
+/**
+ * Detecta e corrige divergências entre {@code Escola.alunosAtivos} e a contagem real de matrículas ATIVAS
+ * (ex.: alterações feitas direto no banco, fora da API).
+ */
+@ApplicationScoped
+public class ReconciliacaoAlunosAtivosJob {
+
+    @Inject
+    EscolaRepository escolaRepository;
+
+    @Scheduled(every = "{api.alunos-ativos.reconciliacao.intervalo}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void reconciliar() {
+        List<Long> corrigidas = escolaRepository.reconciliarAlunosAtivos();
+        if (!corrigidas.isEmpty()) {
+            Log.warnf("Contador de alunos ativos divergente corrigido para as escolas %s", corrigidas);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.acme.jobs;
+
+/**
+ * Relatórios e exportações que podem ser executados em segundo plano.
+ */
+public enum TipoJob {
+    RANKING_ESCOLAS("application/json", ".json"),
+    EVASAO_ALUNOS("application/json", ".json"),
+    CRESCIMENTO_ESCOLAS("application/json", ".json"),
+    EXPORT_ALUNOS("text/csv", ".csv"),
+    EXPORT_ESCOLAS("text/csv", ".csv"),
+    EXPORT_MATRICULAS("text/csv", ".csv");
+
+    private final String contentType;
+    private final String extensao;
+
+    TipoJob(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
@@ -0,0 +1,48 @@
+package org.acme.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.acme.repositories.EscolaRepository;
+
+import java.util.List;
+
+/**
+ * Gauge {@code api.escola.matriculas.ativas} com o contador de matrículas ativas de cada escola. Os valores são
+ * lidos de {@code Escola.alunosAtivos} a cada atualização, e não a cada scrape; escolas removidas deixam de
+ * ser publicadas na atualização seguinte.
+ * <p>
+ * A série é identificada só pelo id: o nome da escola é editável e, como tag, renomear uma escola abriria
+ * uma série nova a cada alteração.
+ */
+@ApplicationScoped
+public class MetricasEscolas {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    EscolaRepository escolaRepository;
+
+    private MultiGauge matriculasAtivas;
+
+    @PostConstruct
+    void iniciar() {
+        matriculasAtivas = MultiGauge.builder("api.escola.matriculas.ativas")
+                .description("Matrículas ativas por escola")
+                .register(registry);
+    }
+
+    @Transactional
+    public void atualizar() {
+        List<Object[]> escolas = escolaRepository.alunosAtivosPorEscola();
+        matriculasAtivas.register(escolas.stream()
+                .map(linha -> MultiGauge.Row.of(Tags.of("escola", String.valueOf(linha[0])),
+                        ((Number) linha[1]).doubleValue()))
+                .toList(), true);
+    }
+}
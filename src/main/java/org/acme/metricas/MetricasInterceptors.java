@@ -0,0 +1,59 @@
+package org.acme.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.ratelimit.GrupoLimite;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Métricas dos interceptors da API, registradas uma única vez: o tempo gasto em cada interceptor sem contar o
+ * método interceptado ({@code api.interceptor.sobrecarga}) e as rejeições do rate limit por grupo
+ * ({@code api.rate-limit.rejeicoes}).
+ */
+@ApplicationScoped
+public class MetricasInterceptors {
+
+    @Inject
+    MeterRegistry registry;
+
+    private Timer sobrecargaApiKey;
+    private Timer sobrecargaIdempotencia;
+    private final Map<GrupoLimite, Counter> rejeicoesRateLimit = new EnumMap<>(GrupoLimite.class);
+
+    @PostConstruct
+    void iniciar() {
+        sobrecargaApiKey = sobrecarga("api-key");
+        sobrecargaIdempotencia = sobrecarga("idempotencia");
+        for (GrupoLimite grupo : GrupoLimite.values()) {
+            rejeicoesRateLimit.put(grupo, Counter.builder("api.rate-limit.rejeicoes")
+                    .description("Requisições rejeitadas pelo rate limit")
+                    .tag("grupo", grupo.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    public Timer sobrecargaApiKey() {
+        return sobrecargaApiKey;
+    }
+
+    public Timer sobrecargaIdempotencia() {
+        return sobrecargaIdempotencia;
+    }
+
+    public void rejeicaoRateLimit(GrupoLimite grupo) {
+        rejeicoesRateLimit.get(grupo).increment();
+    }
+
+    private Timer sobrecarga(String interceptor) {
+        return Timer.builder("api.interceptor.sobrecarga")
+                .description("Tempo gasto no interceptor, sem contar o método interceptado")
+                .tag("interceptor", interceptor)
+                .register(registry);
+    }
+}
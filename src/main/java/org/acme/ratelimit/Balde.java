@@ -0,0 +1,43 @@
+package org.acme.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sem locks: o estado (tokens, instante da última reposição) é trocado por CAS, e os tokens
+ * são repostos de forma contínua a cada consumo, sem thread de reposição.
+ */
+final class Balde {
+
+    private record Estado(double tokens, long instanteNanos) {
+    }
+
+    private final double capacidade;
+    private final double tokensPorNano;
+    private final AtomicReference<Estado> estado;
+
+    Balde(long capacidade, double tokensPorMinuto, long agoraNanos) {
+        this.capacidade = capacidade;
+        this.tokensPorNano = tokensPorMinuto / 60_000_000_000.0;
+        this.estado = new AtomicReference<>(new Estado(capacidade, agoraNanos));
+    }
+
+    ConsumoLimite consumir(long agoraNanos) {
+        while (true) {
+            Estado atual = estado.get();
+            // Outra thread pode ter gravado um instante ligeiramente posterior ao nosso
+            long instante = Math.max(agoraNanos, atual.instanteNanos());
+            double tokens = Math.min(capacidade, atual.tokens() + (instante - atual.instanteNanos()) * tokensPorNano);
+            boolean permitido = tokens >= 1.0;
+            double restantes = permitido ? tokens - 1.0 : tokens;
+            if (estado.compareAndSet(atual, new Estado(restantes, instante))) {
+                long ateEncher = segundos(capacidade - restantes);
+                long retry = permitido ? 0 : Math.max(1, segundos(1.0 - restantes));
+                return new ConsumoLimite(permitido, (long) capacidade, (long) restantes, ateEncher, retry);
+            }
+        }
+    }
+
+    private long segundos(double tokensFaltantes) {
+        return (long) Math.ceil(tokensFaltantes / tokensPorNano / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,13 @@
+package org.acme.ratelimit;
+
+/**
+ * Resultado de uma tentativa de consumo de um token.
+ *
+ * @param capacidade        tamanho do balde (rajada máxima)
+ * @param restantes         tokens inteiros que sobraram
+ * @param segundosAteEncher segundos até o balde voltar à capacidade total
+ * @param segundosParaRetry segundos até haver um token disponível (0 se a requisição foi permitida)
+ */
+public record ConsumoLimite(boolean permitido, long capacidade, long restantes, long segundosAteEncher,
+                            long segundosParaRetry) {
+}
@@ -0,0 +1,13 @@
+package org.acme.ratelimit;
+
+/**
+ * Orçamentos de requisições independentes: um cliente que esgota os relatórios continua podendo ler e gravar.
+ */
+public enum GrupoLimite {
+    // Listagens e consultas simples
+    LEITURA,
+    // Criação e alteração de registros
+    ESCRITA,
+    // Relatórios agregados, exportações e importações em massa
+    RELATORIO
+}
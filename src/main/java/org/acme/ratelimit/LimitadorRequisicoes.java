@@ -0,0 +1,81 @@
+package org.acme.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.auth.ClienteApi;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Um token bucket por cliente e {@link GrupoLimite}. Os baldes ficam em um cache Caffeine (mapa concorrente
+ * segmentado) limitado por tamanho e removidos após {@code api.rate-limit.ociosidade} sem uso; um balde
+ * ocioso por esse tempo já estaria cheio, então removê-lo não devolve tokens a ninguém.
+ */
+@ApplicationScoped
+public class LimitadorRequisicoes {
+
+    @ConfigProperty(name = "api.rate-limit.leitura.por-minuto", defaultValue = "600")
+    double leituraPorMinuto;
+
+    @ConfigProperty(name = "api.rate-limit.leitura.rajada", defaultValue = "100")
+    long leituraRajada;
+
+    @ConfigProperty(name = "api.rate-limit.escrita.por-minuto", defaultValue = "120")
+    double escritaPorMinuto;
+
+    @ConfigProperty(name = "api.rate-limit.escrita.rajada", defaultValue = "30")
+    long escritaRajada;
+
+    @ConfigProperty(name = "api.rate-limit.relatorio.por-minuto", defaultValue = "20")
+    double relatorioPorMinuto;
+
+    @ConfigProperty(name = "api.rate-limit.relatorio.rajada", defaultValue = "5")
+    long relatorioRajada;
+
+    @ConfigProperty(name = "api.rate-limit.ociosidade", defaultValue = "10m")
+    Duration ociosidade;
+
+    @ConfigProperty(name = "api.rate-limit.max-baldes", defaultValue = "100000")
+    long maxBaldes;
+
+    private Cache<String, Balde> baldes;
+
+    @PostConstruct
+    void iniciar() {
+        baldes = Caffeine.newBuilder()
+                .maximumSize(maxBaldes)
+                .expireAfterAccess(ociosidade)
+                .build();
+    }
+
+    /**
+     * Consome um token do balde de {@code identificador} no grupo.
+     *
+     * @param cliente cliente autenticado, cujo {@code limitePorMinuto} substitui o padrão de LEITURA e ESCRITA;
+     *                {@code null} para requisições anônimas
+     */
+    public ConsumoLimite consumir(String identificador, ClienteApi cliente, GrupoLimite grupo) {
+        long agora = System.nanoTime();
+        return baldes.get(identificador + '|' + grupo, chave -> novoBalde(cliente, grupo, agora))
+                .consumir(agora);
+    }
+
+    private Balde novoBalde(ClienteApi cliente, GrupoLimite grupo, long agora) {
+        Integer limiteCliente = cliente == null ? null : cliente.limitePorMinuto();
+        return switch (grupo) {
+            case LEITURA -> balde(leituraPorMinuto, leituraRajada, limiteCliente, agora);
+            case ESCRITA -> balde(escritaPorMinuto, escritaRajada, limiteCliente, agora);
+            case RELATORIO -> new Balde(relatorioRajada, relatorioPorMinuto, agora);
+        };
+    }
+
+    private static Balde balde(double porMinuto, long rajada, Integer limiteCliente, long agora) {
+        if (limiteCliente == null) {
+            return new Balde(rajada, porMinuto, agora);
+        }
+        return new Balde(Math.max(1, Math.min(rajada, limiteCliente)), limiteCliente, agora);
+    }
+}
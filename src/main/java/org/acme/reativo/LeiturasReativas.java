@@ -0,0 +1,103 @@
+package org.acme.reativo;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.acme.repositories.AlunoRepository;
+import org.acme.repositories.EscolaRepository;
+import org.acme.repositories.KeysetRepository;
+import org.acme.repositories.MatriculaRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Leituras em {@link Uni}/{@link Multi} sobre os mesmos repositórios e entidades do stack bloqueante.
+ * <p>
+ * O driver JDBC bloqueia, então cada consulta é assinada em uma virtual thread com transação própria;
+ * a thread de I/O que atendeu a requisição nunca espera pelo banco.
+ */
+@ApplicationScoped
+public class LeiturasReativas {
+
+    @Inject
+    AlunoRepository alunoRepository;
+
+    @Inject
+    EscolaRepository escolaRepository;
+
+    @Inject
+    MatriculaRepository matriculaRepository;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService executor;
+
+    @ConfigProperty(name = "api.reativo.tamanho-pagina", defaultValue = "500")
+    int tamanhoPagina;
+
+    /**
+     * @return {@code null} se a escola não existir
+     */
+    public Uni<Map<String, Object>> ocupacao(Long escolaId) {
+        return ler(() -> escolaRepository.ocupacao(escolaId));
+    }
+
+    /**
+     * @return {@code null} se o aluno não existir
+     */
+    public Uni<List<Matricula>> matriculasDoAluno(Long alunoId) {
+        return ler(() -> {
+            Aluno aluno = alunoRepository.findById(alunoId);
+            return aluno == null ? null : matriculaRepository.listByAlunoComEscola(aluno);
+        });
+    }
+
+    public Uni<Boolean> alunoExiste(Long id) {
+        return ler(() -> alunoRepository.findById(id) != null);
+    }
+
+    public Uni<Boolean> escolaExiste(Long id) {
+        return ler(() -> escolaRepository.findById(id) != null);
+    }
+
+    public Multi<Escola> escolas() {
+        return paginar(escolaRepository);
+    }
+
+    public Multi<Matricula> matriculas() {
+        return paginar(matriculaRepository);
+    }
+
+    /**
+     * Percorre a tabela por keyset, uma página por vez: a próxima página só é consultada quando o
+     * assinante pede mais itens, então um cliente lento não acumula a tabela inteira em memória.
+     */
+    private <E extends PanacheEntity> Multi<E> paginar(KeysetRepository<E> repository) {
+        return Multi.createBy().repeating()
+                .uni(() -> new AtomicReference<Long>(), ultimoId -> ler(() -> repository.listAfter(ultimoId.get(), tamanhoPagina))
+                        .invoke(pagina -> {
+                            if (!pagina.isEmpty()) {
+                                ultimoId.set(pagina.get(pagina.size() - 1).id);
+                            }
+                        }))
+                .whilst(pagina -> pagina.size() == tamanhoPagina)
+                .onItem().disjoint();
+    }
+
+    private <T> Uni<T> ler(Supplier<T> consulta) {
+        return Uni.createFrom().item(() -> QuarkusTransaction.requiringNew().call(consulta::get))
+                .runSubscriptionOn(executor);
+    }
+}
@@ -1,25 +1,81 @@
 package org.acme.repositories;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
-import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
 import org.acme.entities.Aluno;
 import org.acme.entities.Escola;
+import org.acme.interceptors.Metered;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+@Metered
 @ApplicationScoped
-public class AlunoRepository implements PanacheRepository<Aluno> {
+public class AlunoRepository implements KeysetRepository<Aluno> {
 
+    // Região do cache de consultas da busca; o Hibernate invalida os resultados quando as tabelas consultadas mudam
+    public static final String REGIAO_BUSCA = "alunos-busca";
+
+    // Busca pela chave primária (e não por consulta) para ser atendida pelo cache de segundo nível
     public Aluno findById(Long id) {
-        return find("id", id).firstResult();
+        return getEntityManager().find(Aluno.class, id);
     }
 
     public List<Aluno> findByEscola(Escola escola) {
         return find("escola", escola).list();
     }
 
+    /**
+     * Busca alunos aplicando todos os filtros no banco. O nome é comparado por prefixo sobre a
+     * coluna normalizada (indexada); a escola filtra alunos com matrícula ATIVA nela.
+     * Retorna projeções em {@code Map}, sem carregar as entidades nem suas matrículas.
+     * O resultado fica no cache de consultas ({@link #REGIAO_BUSCA}) até a próxima alteração nas tabelas envolvidas.
+     */
+    public List<Map<String, Object>> search(String nome, Integer idadeMin, Integer idadeMax, Long escolaId) {
+        StringBuilder jpql = new StringBuilder("""
+                select new map(a.id as id, a.nome as nome, a.idade as idade, a.dataNascimento as dataNascimento,
+                    a.nomeResponsavel as nomeResponsavel, a.telefoneResponsavel as telefoneResponsavel,
+                    a.emailResponsavel as emailResponsavel, a.endereco as endereco,
+                    a.observacoes as observacoes, a.ativo as ativo)
+                from Aluno a where 1 = 1""");
+        Map<String, Object> params = new HashMap<>();
+
+        if (nome != null && !nome.isBlank()) {
+            jpql.append(" and a.nomeNormalizado like :nome escape '!'");
+            params.put("nome", escapeLike(Aluno.normalizarNome(nome)) + "%");
+        }
+        if (idadeMin != null) {
+            jpql.append(" and a.idade >= :idadeMin");
+            params.put("idadeMin", idadeMin);
+        }
+        if (idadeMax != null) {
+            jpql.append(" and a.idade <= :idadeMax");
+            params.put("idadeMax", idadeMax);
+        }
+        if (escolaId != null) {
+            jpql.append(" and exists (select 1 from Matricula m where m.aluno = a and m.escola.id = :escolaId"
+                    + " and m.status = org.acme.entities.Matricula.StatusMatricula.ATIVA)");
+            params.put("escolaId", escolaId);
+        }
+        jpql.append(" order by a.id");
+
+        Query query = getEntityManager().createQuery(jpql.toString())
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, REGIAO_BUSCA);
+        params.forEach(query::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> resultado = query.getResultList();
+        return resultado;
+    }
+
+    private static String escapeLike(String valor) {
+        return valor.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     public Aluno addAluno(Aluno aluno) {
         persistAndFlush(aluno);
         return aluno;
@@ -1,15 +1,32 @@
 package org.acme.repositories;
 
-import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.acme.cache.CacheDeRespostas;
 import org.acme.entities.Aluno;
 import org.acme.entities.Escola;
+import org.acme.interceptors.Metered;
+import org.hibernate.query.NativeQuery;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+@Metered
 @ApplicationScoped
-public class EscolaRepository implements PanacheRepository<Escola> {
+public class EscolaRepository implements KeysetRepository<Escola> {
+
+    // UPDATEs em massa não disparam os callbacks das entidades; a alteração é registrada aqui
+    @Inject
+    CacheDeRespostas cacheDeRespostas;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
 
     public Escola findById(UUID id) {
         return find("id", id).firstResult();
@@ -24,6 +41,202 @@ public class EscolaRepository implements PanacheRepository<Escola> {
         return escola;
     }
 
+    /**
+     * Soma {@code delta} ao contador de matrículas ativas com um UPDATE atômico
+     * e reflete o novo valor na instância gerenciada.
+     */
+    public void ajustarAlunosAtivos(Escola escola, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        ajustarAlunosAtivos(escola.id, delta);
+        escola.setAlunosAtivos(escola.getAlunosAtivos() + delta);
+    }
+
+    public void ajustarAlunosAtivos(Long escolaId, long delta) {
+        atualizarAlunosAtivos("update escolas set alunos_ativos = alunos_ativos + :delta where id = :id", delta, escolaId);
+    }
+
+    /**
+     * Reserva uma vaga na escola com um UPDATE condicional: o banco só incrementa o contador se ainda houver
+     * capacidade, e o lock da linha serializa apenas as matrículas concorrentes da mesma escola.
+     *
+     * @return {@code false} se a escola já estiver lotada
+     */
+    public boolean reservarVaga(Escola escola) {
+        return reservarVagas(escola, 1);
+    }
+
+    /**
+     * Reserva {@code quantidade} vagas de uma vez, com a mesma garantia de {@link #reservarVaga(Escola)}:
+     * ou todas cabem na capacidade, ou nenhuma é reservada.
+     */
+    public boolean reservarVagas(Escola escola, int quantidade) {
+        if (quantidade <= 0) {
+            return true;
+        }
+        int atualizadas = atualizarAlunosAtivos(
+                "update escolas set alunos_ativos = alunos_ativos + :delta where id = :id and alunos_ativos + :delta <= capacidade",
+                quantidade, escola.id);
+        if (atualizadas == 0) {
+            return false;
+        }
+        escola.setAlunosAtivos(escola.getAlunosAtivos() + quantidade);
+        return true;
+    }
+
+    /**
+     * Contador de matrículas ativas lido direto do banco, sem passar pela entidade no cache de segundo nível
+     * (local à instância, pode estar desatualizado em relação às outras instâncias).
+     */
+    public long contarAlunosAtivos(Long escolaId) {
+        return getEntityManager()
+                .createQuery("select e.alunosAtivos from Escola e where e.id = :id", Long.class)
+                .setParameter("id", escolaId)
+                .getSingleResult();
+    }
+
+    // UPDATE nativo com um espaço de sincronização vazio: um UPDATE em massa no HQL descartaria a região inteira de
+    // Escola do cache de segundo nível a cada matrícula. Só a entrada da escola alterada é removida, agora e após o
+    // fim da transação (para não ficar no cache um valor lido antes do commit). Sem espaço sincronizado o Hibernate
+    // também não faz o flush automático, então as alterações pendentes (ex.: escola recém-criada) vão antes.
+    private int atualizarAlunosAtivos(String sql, long delta, Long escolaId) {
+        flush();
+        int atualizadas = getEntityManager().createNativeQuery(sql)
+                .setParameter("delta", delta)
+                .setParameter("id", escolaId)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("")
+                .executeUpdate();
+        if (atualizadas > 0) {
+            removerDoCache(escolaId);
+            transacoes.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    removerDoCache(escolaId);
+                }
+            });
+            cacheDeRespostas.registrarAlteracao();
+        }
+        return atualizadas;
+    }
+
+    private void removerDoCache(Long escolaId) {
+        getEntityManager().getEntityManagerFactory().getCache().evict(Escola.class, escolaId);
+    }
+
+    /**
+     * Recalcula o contador das escolas cujo valor diverge da contagem real de matrículas ATIVAS.
+     *
+     * @return ids das escolas corrigidas
+     */
+    public List<Long> reconciliarAlunosAtivos() {
+        List<Long> divergentes = getEntityManager().createQuery("""
+                select e.id from Escola e
+                where e.alunosAtivos <> (select count(m) from Matricula m
+                                         where m.escola = e and m.status = org.acme.entities.Matricula.StatusMatricula.ATIVA)
+                """, Long.class).getResultList();
+        if (!divergentes.isEmpty()) {
+            getEntityManager().createQuery("""
+                    update Escola e set e.alunosAtivos = (select count(m) from Matricula m
+                                                          where m.escola = e and m.status = org.acme.entities.Matricula.StatusMatricula.ATIVA)
+                    where e.id in :ids
+                    """).setParameter("ids", divergentes).executeUpdate();
+            cacheDeRespostas.registrarAlteracao();
+        }
+        return divergentes;
+    }
+
+    /**
+     * Contador de matrículas ativas de cada escola, como linhas {@code [id, alunosAtivos]}.
+     */
+    public List<Object[]> alunosAtivosPorEscola() {
+        return getEntityManager()
+                .createQuery("select e.id, e.alunosAtivos from Escola e order by e.id", Object[].class)
+                .getResultList();
+    }
+
+    /**
+     * Estatísticas de ocupação a partir do contador de matrículas ATIVAS da escola.
+     *
+     * @return {@code null} se a escola não existir
+     */
+    public Map<String, Object> ocupacao(Long id) {
+        Escola escola = findById(id);
+        if (escola == null) {
+            return null;
+        }
+        long alunosMatriculadosAtivos = escola.getAlunosAtivos();
+
+        Map<String, Object> ocupacao = new HashMap<>();
+        ocupacao.put("escolaId", escola.id);
+        ocupacao.put("escolaNome", escola.getNome());
+        ocupacao.put("capacidade", escola.getCapacidade());
+        ocupacao.put("alunosAtivosMatriculados", alunosMatriculadosAtivos);
+
+        double ocupacaoPercentual = 0.0;
+        if (escola.getCapacidade() > 0) {
+            ocupacaoPercentual = (double) alunosMatriculadosAtivos / escola.getCapacidade() * 100;
+        }
+        ocupacao.put("ocupacaoPercentual", ocupacaoPercentual);
+        ocupacao.put("vagasDisponiveis", escola.getCapacidade() - alunosMatriculadosAtivos);
+        return ocupacao;
+    }
+
+    /**
+     * Ranking de escolas por ocupação (matrículas ATIVAS / capacidade), com média de idade dos alunos ativos.
+     * Agregado e ordenado em uma única consulta; {@code limite} restringe ao top-N.
+     */
+    public List<Map<String, Object>> ranking(Integer limite) {
+        Query query = getEntityManager().createQuery("""
+                select new map(e.id as escolaId, e.nome as escolaNome, e.capacidade as capacidade,
+                    count(m.id) as totalAlunosAtivos,
+                    e.capacidade - count(m.id) as vagasDisponiveis,
+                    round(coalesce(avg(a.idade), 0.0), 2) as mediaIdadeAlunosAtivos,
+                    round(case when e.capacidade > 0 then count(m.id) * 100.0 / e.capacidade else 0.0 end, 2) as ocupacaoPercentual)
+                from Escola e
+                left join Matricula m on m.escola = e and m.status = org.acme.entities.Matricula.StatusMatricula.ATIVA
+                left join m.aluno a
+                group by e.id, e.nome, e.capacidade
+                order by case when e.capacidade > 0 then count(m.id) * 1.0 / e.capacidade else 0.0 end desc, e.id
+                """);
+        if (limite != null) {
+            query.setMaxResults(limite);
+        }
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> ranking = query.getResultList();
+        return ranking;
+    }
+
+    /**
+     * Novas matrículas ATIVAS por escola com data_inicio em [{@code inicio}, {@code fimExclusivo}),
+     * agrupadas no banco usando o índice (escola_id, status, data_inicio).
+     */
+    public List<Map<String, Object>> crescimento(LocalDateTime inicio, LocalDateTime fimExclusivo) {
+        Query query = getEntityManager().createQuery("""
+                select new map(e.id as escolaId, e.nome as escolaNome, e.capacidade as capacidade,
+                    e.alunosAtivos as totalAlunosAtivosAtualmente,
+                    count(m.id) as matriculasNovasNoPeriodo,
+                    round(case when e.capacidade > 0 then count(m.id) * 100.0 / e.capacidade else 0.0 end, 2)
+                        as crescimentoPercentualSobreCapacidade)
+                from Escola e
+                left join Matricula m on m.escola = e
+                    and m.status = org.acme.entities.Matricula.StatusMatricula.ATIVA
+                    and m.dataInicio >= :inicio and m.dataInicio < :fim
+                group by e.id, e.nome, e.capacidade, e.alunosAtivos
+                order by e.id
+                """)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fimExclusivo);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> crescimento = query.getResultList();
+        return crescimento;
+    }
+
     public Escola removeFromId(UUID id) {
         Escola escola = this.findById(id);
         escola.delete();
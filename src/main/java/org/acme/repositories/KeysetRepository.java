@@ -0,0 +1,22 @@
+package org.acme.repositories;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+
+import java.util.List;
+
+/**
+ * Repositório com paginação por keyset sobre o id do {@code PanacheEntity}.
+ * Diferente de OFFSET, o custo de cada página não cresce com a posição na tabela.
+ */
+public interface KeysetRepository<Entity> extends PanacheRepository<Entity> {
+
+    /**
+     * Retorna até {@code limite} registros com id maior que {@code aposId}, em ordem crescente de id.
+     */
+    default List<Entity> listAfter(Long aposId, int limite) {
+        return find("id > ?1", Sort.ascending("id"), aposId == null ? 0L : aposId)
+                .page(0, limite)
+                .list();
+    }
+}
@@ -1,15 +1,232 @@
 package org.acme.repositories;
 
-import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
+import org.acme.cache.CacheDeRespostas;
+import org.acme.entities.Aluno;
 import org.acme.entities.Escola;
 import org.acme.entities.Matricula;
+import org.acme.exceptions.MatriculaException;
+import org.acme.interceptors.Metered;
+import org.hibernate.exception.ConstraintViolationException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Metered
 @ApplicationScoped
-public class MatriculaRepository implements PanacheRepository<Matricula> {
+public class MatriculaRepository implements KeysetRepository<Matricula> {
+
+    // Aluno e escola são LAZY; as consultas abaixo trazem no mesmo SELECT o que cada endpoint serializa
+    private static final String COM_ALUNO_E_ESCOLA = "from Matricula m join fetch m.aluno join fetch m.escola";
+
+    // Índice único parcial (migração V2): no máximo uma matrícula ATIVA por aluno e escola
+    private static final String UNICA_ATIVA = "uk_matriculas_aluno_escola_ativa";
+
+    @Inject
+    EscolaRepository escolaRepository;
+
+    @Inject
+    CacheDeRespostas cacheDeRespostas;
 
     public long countByEscola(Escola escola) {
         return count("escola", escola);
     }
 
-}
\ No newline at end of file
+    @Override
+    public List<Matricula> listAfter(Long aposId, int limite) {
+        return find(COM_ALUNO_E_ESCOLA + " where m.id > ?1 order by m.id", aposId == null ? 0L : aposId)
+                .page(0, limite)
+                .list();
+    }
+
+    /**
+     * Persiste uma nova matrícula. Se for ATIVA, reserva antes a vaga na escola.
+     *
+     * @return {@code false} (sem persistir) se a escola estiver lotada
+     * @throws MatriculaException se o aluno já tiver uma matrícula ATIVA na escola (a transação é desfeita)
+     */
+    public boolean registrar(Matricula matricula) {
+        boolean ativa = matricula.getStatus() == Matricula.StatusMatricula.ATIVA;
+        if (ativa && !escolaRepository.reservarVaga(matricula.getEscola())) {
+            return false;
+        }
+        persist(matricula);
+        if (ativa) {
+            gravarAtivas();
+        }
+        return true;
+    }
+
+    /**
+     * Único ponto de mudança de status: mantém o contador de ativos da escola na mesma transação.
+     * Ao ativar, a vaga é reservada antes da mudança.
+     *
+     * @return {@code false} (sem alterar a matrícula) se a escola estiver lotada
+     * @throws MatriculaException se o aluno já tiver outra matrícula ATIVA na escola (a transação é desfeita)
+     */
+    public boolean alterarStatus(Matricula matricula, Matricula.StatusMatricula novoStatus) {
+        boolean eraAtiva = matricula.getStatus() == Matricula.StatusMatricula.ATIVA;
+        boolean ficaAtiva = novoStatus == Matricula.StatusMatricula.ATIVA;
+        if (ficaAtiva && !eraAtiva && !escolaRepository.reservarVaga(matricula.getEscola())) {
+            return false;
+        }
+        if (eraAtiva && !ficaAtiva) {
+            escolaRepository.ajustarAlunosAtivos(matricula.getEscola(), -1);
+        }
+        matricula.setStatus(novoStatus);
+        matricula.setDataAtualizacao(LocalDateTime.now());
+        if (ficaAtiva && !eraAtiva) {
+            gravarAtivas();
+        }
+        return true;
+    }
+
+    /**
+     * Versão em lote de {@link #alterarStatus}: as vagas de cada escola são calculadas a partir do contador já
+     * carregado e reservadas (ou liberadas) com um UPDATE por escola, relendo o contador só se uma matrícula
+     * concorrente tiver ocupado vagas nesse meio tempo. As matrículas alteradas são
+     * gravadas no flush, agrupadas em batch JDBC.
+     *
+     * @return as matrículas que não foram reativadas por falta de vaga na escola
+     * @throws MatriculaException se algum aluno ficar com duas matrículas ATIVAS na mesma escola (a transação é desfeita)
+     */
+    public List<Matricula> alterarStatusEmLote(List<Matricula> matriculas, Matricula.StatusMatricula novoStatus) {
+        boolean ficaAtiva = novoStatus == Matricula.StatusMatricula.ATIVA;
+        Map<Escola, List<Matricula>> mudancasPorEscola = new LinkedHashMap<>();
+        for (Matricula matricula : matriculas) {
+            boolean eraAtiva = matricula.getStatus() == Matricula.StatusMatricula.ATIVA;
+            if (eraAtiva != ficaAtiva) {
+                mudancasPorEscola.computeIfAbsent(matricula.getEscola(), e -> new ArrayList<>()).add(matricula);
+            }
+        }
+
+        List<Matricula> semVaga = new ArrayList<>();
+        mudancasPorEscola.forEach((escola, mudancas) -> {
+            if (!ficaAtiva) {
+                escolaRepository.ajustarAlunosAtivos(escola, -mudancas.size());
+                return;
+            }
+            int vagas = Math.max(0, Math.min(escola.getVagasDisponiveis(), mudancas.size()));
+            // O UPDATE condicional protege contra matrículas concorrentes feitas depois da leitura do contador; se
+            // alguma ocupou vagas nesse intervalo, o contador é relido e só as que realmente não cabem são rejeitadas
+            while (!escolaRepository.reservarVagas(escola, vagas)) {
+                escola.setAlunosAtivos(escolaRepository.contarAlunosAtivos(escola.id));
+                vagas = Math.max(0, Math.min(escola.getVagasDisponiveis(), mudancas.size()));
+            }
+            semVaga.addAll(mudancas.subList(vagas, mudancas.size()));
+        });
+
+        Set<Matricula> rejeitadas = new HashSet<>(semVaga);
+        LocalDateTime agora = LocalDateTime.now();
+        for (Matricula matricula : matriculas) {
+            if (!rejeitadas.contains(matricula)) {
+                matricula.setStatus(novoStatus);
+                matricula.setDataAtualizacao(agora);
+            }
+        }
+        if (ficaAtiva && !mudancasPorEscola.isEmpty()) {
+            gravarAtivas();
+        }
+        return semVaga;
+    }
+
+    /**
+     * Envia já as matrículas que ficaram ATIVAS, para que o índice único acuse aqui, e não no commit, um aluno com
+     * duas matrículas ATIVAS na mesma escola. O banco garante a regra também entre requisições concorrentes.
+     */
+    private void gravarAtivas() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+                if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null
+                        && violacao.getConstraintName().toLowerCase(Locale.ROOT).contains(UNICA_ATIVA)) {
+                    throw new MatriculaException("O aluno já possui uma matrícula ATIVA nesta escola.");
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove as matrículas do aluno, descontando as ATIVAS do contador de cada escola.
+     */
+    public long deleteByAluno(Aluno aluno) {
+        List<Object[]> ativasPorEscola = getEntityManager().createQuery("""
+                select m.escola.id, count(m) from Matricula m
+                where m.aluno = :aluno and m.status = org.acme.entities.Matricula.StatusMatricula.ATIVA
+                group by m.escola.id
+                """, Object[].class)
+                .setParameter("aluno", aluno)
+                .getResultList();
+        for (Object[] linha : ativasPorEscola) {
+            escolaRepository.ajustarAlunosAtivos((Long) linha[0], -((Long) linha[1]));
+        }
+        long removidas = delete("aluno", aluno);
+        cacheDeRespostas.registrarAlteracao();
+        return removidas;
+    }
+
+    public Matricula findByIdComAlunoEEscola(Long id) {
+        return find(COM_ALUNO_E_ESCOLA + " where m.id = ?1", id).firstResult();
+    }
+
+    public List<Matricula> listByIdsComAlunoEEscola(Collection<Long> ids) {
+        return find(COM_ALUNO_E_ESCOLA + " where m.id in ?1 order by m.id", ids).list();
+    }
+
+    public List<Matricula> listByAlunoComEscola(Aluno aluno) {
+        return find(COM_ALUNO_E_ESCOLA + " where m.aluno = ?1 order by m.id", aluno).list();
+    }
+
+    public List<Matricula> listAllComAlunoEEscola() {
+        return find(COM_ALUNO_E_ESCOLA).list();
+    }
+
+    /**
+     * Matrículas CANCELADAS com data_fim em [{@code inicio}, {@code fimExclusivo}), paginadas por id.
+     * A faixa é resolvida pelo índice (status, data_fim); só as linhas da janela são lidas.
+     */
+    public List<Map<String, Object>> listEvasao(LocalDateTime inicio, LocalDateTime fimExclusivo, Long aposId, int limite) {
+        Query query = getEntityManager().createQuery("""
+                select new map(m.id as matriculaId, a.id as alunoId, a.nome as alunoNome,
+                    e.id as escolaId, e.nome as escolaNome,
+                    m.dataInicio as dataInicioMatricula, m.dataFim as dataFimMatricula,
+                    m.status as statusMatricula, m.observacoes as observacoes)
+                from Matricula m join m.aluno a join m.escola e
+                where m.status = org.acme.entities.Matricula.StatusMatricula.CANCELADA
+                  and m.dataFim >= :inicio and m.dataFim < :fim and m.id > :apos
+                order by m.id
+                """)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fimExclusivo)
+                .setParameter("apos", aposId == null ? 0L : aposId)
+                .setMaxResults(limite);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> evasao = query.getResultList();
+        return evasao;
+    }
+
+    /**
+     * Média de idade dos alunos matriculados, agrupada por escola, calculada no banco.
+     */
+    public Map<Long, Double> mediaIdadePorEscola() {
+        List<Object[]> linhas = getEntityManager()
+                .createQuery("select m.escola.id, avg(m.aluno.idade) from Matricula m group by m.escola.id", Object[].class)
+                .getResultList();
+        Map<Long, Double> mediaPorEscola = new LinkedHashMap<>();
+        for (Object[] linha : linhas) {
+            mediaPorEscola.put((Long) linha[0], ((Number) linha[1]).doubleValue());
+        }
+        return mediaPorEscola;
+    }
+}
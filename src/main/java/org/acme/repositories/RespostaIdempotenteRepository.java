@@ -0,0 +1,23 @@
+package org.acme.repositories;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.entities.RespostaIdempotente;
+
+import java.time.LocalDateTime;
+
+@ApplicationScoped
+public class RespostaIdempotenteRepository implements PanacheRepositoryBase<RespostaIdempotente, String> {
+
+    /**
+     * @return a resposta gravada para a chave, ou {@code null} se não existir ou já tiver expirado
+     */
+    public RespostaIdempotente buscarValida(String chave) {
+        RespostaIdempotente resposta = findById(chave);
+        return resposta == null || resposta.getExpiraEm().isBefore(LocalDateTime.now()) ? null : resposta;
+    }
+
+    public long removerExpiradas() {
+        return delete("expiraEm < ?1", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,52 @@
+package org.acme.sql;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Estatísticas do Hibernate que, além dos totais globais, alimentam o {@link EstatisticasSql} da requisição
+ * em andamento na thread. Registradas por {@code hibernate.stats.factory}.
+ */
+public class EstatisticasHibernate extends StatisticsImpl {
+
+    public EstatisticasHibernate(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    public static class Fabrica implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new EstatisticasHibernate(sessionFactory);
+        }
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        EstatisticasSql atual = EstatisticasSql.atual();
+        if (atual != null) {
+            atual.comandoPreparado();
+        }
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        EstatisticasSql atual = EstatisticasSql.atual();
+        if (atual != null) {
+            atual.entidadeCarregada();
+        }
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        super.fetchCollection(role);
+        EstatisticasSql atual = EstatisticasSql.atual();
+        if (atual != null) {
+            atual.colecaoBuscada();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.acme.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contadores de SQL de uma requisição. Fica associado à thread que atende a requisição enquanto o
+ * {@code QueryBudgetInterceptor} está ativo; consultas feitas em outras threads (streams, jobs) não entram.
+ */
+public final class EstatisticasSql {
+
+    private static final ThreadLocal<EstatisticasSql> ATUAL = new ThreadLocal<>();
+
+    private int comandos;
+    private int entidades;
+    private int colecoes;
+    private final Map<String, Integer> selects = new HashMap<>();
+    private String selectMaisRepetido;
+    private int repeticoesMaximas;
+
+    public static EstatisticasSql atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Associa um novo coletor à thread atual.
+     */
+    public static EstatisticasSql iniciar() {
+        EstatisticasSql estatisticas = new EstatisticasSql();
+        ATUAL.set(estatisticas);
+        return estatisticas;
+    }
+
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+
+    void comandoPreparado() {
+        comandos++;
+    }
+
+    void entidadeCarregada() {
+        entidades++;
+    }
+
+    void colecaoBuscada() {
+        colecoes++;
+    }
+
+    // O mesmo SELECT (parametrizado) repetido várias vezes na requisição é o sinal típico de N+1
+    void sqlGerado(String sql) {
+        if (!sql.regionMatches(true, 0, "select", 0, 6)) {
+            return;
+        }
+        int repeticoes = selects.merge(sql, 1, Integer::sum);
+        if (repeticoes > repeticoesMaximas) {
+            repeticoesMaximas = repeticoes;
+            selectMaisRepetido = sql;
+        }
+    }
+
+    public int comandos() {
+        return comandos;
+    }
+
+    public int entidades() {
+        return entidades;
+    }
+
+    public int colecoes() {
+        return colecoes;
+    }
+
+    public int repeticoesMaximas() {
+        return repeticoesMaximas;
+    }
+
+    public String selectMaisRepetido() {
+        return selectMaisRepetido;
+    }
+
+    @Override
+    public String toString() {
+        return comandos + " comandos SQL, " + entidades + " entidades carregadas, " + colecoes + " coleções buscadas";
+    }
+}
@@ -0,0 +1,21 @@
+package org.acme.sql;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Entrega o texto de cada comando ao {@link EstatisticasSql} da requisição, para a detecção de N+1.
+ * Não altera o SQL.
+ */
+@PersistenceUnitExtension
+public class InspetorSql implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        EstatisticasSql atual = EstatisticasSql.atual();
+        if (atual != null) {
+            atual.sqlGerado(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,82 @@
+-- Esquema inicial: tabelas, sequências e índices comuns ao PostgreSQL (produção) e ao H2 no modo PostgreSQL (dev/testes).
+-- Os índices parciais ficam em V2, em db/migration/postgresql e db/migration/h2.
+
+-- Ids pré-alocados de 50 em 50 (allocationSize padrão + otimizador pooled-lo)
+create sequence escolas_seq start with 1 increment by 50;
+create sequence alunos_seq start with 1 increment by 50;
+create sequence matriculas_seq start with 1 increment by 50;
+
+create table escolas (
+    id               bigint       not null,
+    nome             varchar(100) not null,
+    capacidade       integer      not null,
+    endereco         varchar(255),
+    telefone         varchar(255),
+    email            varchar(255),
+    diretor          varchar(255),
+    data_fundacao    timestamp(6),
+    ativo            boolean      not null,
+    alunos_ativos    bigint       not null default 0,
+    data_criacao     timestamp(6) not null,
+    data_atualizacao timestamp(6),
+    constraint pk_escolas primary key (id),
+    constraint uk_escolas_nome unique (nome),
+    constraint ck_escolas_capacidade check (capacidade >= 1)
+);
+
+create table alunos (
+    id                   bigint       not null,
+    nome                 varchar(100) not null,
+    nome_normalizado     varchar(100) not null,
+    idade                integer      not null,
+    data_nascimento      date,
+    nome_responsavel     varchar(255),
+    telefone_responsavel varchar(255),
+    email_responsavel    varchar(255),
+    endereco             varchar(255),
+    observacoes          varchar(500),
+    ativo                boolean      not null,
+    data_criacao         timestamp(6) not null,
+    data_atualizacao     timestamp(6),
+    constraint pk_alunos primary key (id),
+    constraint ck_alunos_idade check (idade between 3 and 18)
+);
+
+create table matriculas (
+    id               bigint       not null,
+    aluno_id         bigint       not null,
+    escola_id        bigint       not null,
+    data_matricula   timestamp(6) not null,
+    data_inicio      timestamp(6) not null,
+    data_fim         timestamp(6),
+    status           varchar(20)  not null,
+    observacoes      varchar(500),
+    data_criacao     timestamp(6) not null,
+    data_atualizacao timestamp(6),
+    constraint pk_matriculas primary key (id),
+    constraint fk_matriculas_aluno foreign key (aluno_id) references alunos (id),
+    constraint fk_matriculas_escola foreign key (escola_id) references escolas (id),
+    constraint ck_matriculas_status check (status in ('ATIVA', 'PENDENTE', 'CANCELADA', 'SUSPENSA', 'CONCLUIDA'))
+);
+
+create table respostas_idempotentes (
+    chave           varchar(320)     not null,
+    hash_requisicao varchar(64)      not null,
+    status          integer          not null,
+    corpo           varchar(1000000),
+    tipo_conteudo   varchar(100),
+    location        varchar(500),
+    expira_em       timestamp(6)     not null,
+    constraint pk_respostas_idempotentes primary key (chave)
+);
+
+-- Busca de alunos por faixa de idade (o índice do prefixo do nome fica na pasta de cada banco)
+create index idx_alunos_idade on alunos (idade);
+
+-- Matrículas de um aluno (listagem por aluno, exclusão do aluno com as matrículas)
+create index idx_matriculas_aluno on matriculas (aluno_id);
+-- Exportação CSV de matrículas filtrada por status e faixa de data_inicio
+create index idx_matriculas_status_data_inicio on matriculas (status, data_inicio);
+
+-- Limpeza das respostas expiradas
+create index idx_respostas_idempotentes_expira_em on respostas_idempotentes (expira_em);
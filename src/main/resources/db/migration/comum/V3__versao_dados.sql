@@ -0,0 +1,9 @@
+-- Versão global dos dados, usada na ETag das respostas em cache (CacheDeRespostas). Avança no commit de toda
+-- transação que altera escolas, alunos ou matrículas e é lida por todas as instâncias.
+create table versao_dados (
+    id     integer not null,
+    versao bigint  not null,
+    constraint pk_versao_dados primary key (id)
+);
+
+insert into versao_dados (id, versao) values (1, 0);
@@ -0,0 +1,16 @@
+-- Equivalentes dos índices específicos do PostgreSQL (db/migration/postgresql): parciais, que o H2 não suporta,
+-- e com operator class.
+
+-- Um aluno tem no máximo uma matrícula ATIVA por escola: a coluna gerada só tem valor nas ATIVAS e o índice
+-- único ignora as linhas com NULL
+alter table matriculas add column ativa boolean generated always as (case when status = 'ATIVA' then true end);
+create unique index uk_matriculas_aluno_escola_ativa on matriculas (aluno_id, escola_id, ativa);
+
+-- Matrículas por escola e status em uma faixa de data_inicio (crescimento, ranking, reconciliação do contador)
+create index idx_matriculas_escola_status_data_inicio on matriculas (escola_id, status, data_inicio);
+
+-- Relatório de evasão: status = CANCELADA e faixa de data_fim
+create index idx_matriculas_status_data_fim on matriculas (status, data_fim);
+
+-- Busca de alunos por prefixo do nome (sem acentos/maiúsculas); o H2 usa o btree comum em LIKE 'x%'
+create index idx_alunos_nome_normalizado on alunos (nome_normalizado);
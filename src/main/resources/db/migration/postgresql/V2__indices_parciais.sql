@@ -0,0 +1,17 @@
+-- Índices específicos do PostgreSQL: parciais (só as linhas do status consultado entram no índice) e com
+-- operator class para LIKE por prefixo.
+
+-- Um aluno tem no máximo uma matrícula ATIVA por escola (inclusive com matrículas concorrentes)
+create unique index uk_matriculas_aluno_escola_ativa on matriculas (aluno_id, escola_id) where status = 'ATIVA';
+
+-- Matrículas de uma escola (contagem por escola, exclusão da escola com as matrículas)
+create index idx_matriculas_escola on matriculas (escola_id);
+-- Matrículas ATIVAS por escola: relatório de crescimento (faixa de data_inicio), ranking e reconciliação do contador
+create index idx_matriculas_escola_ativas_data_inicio on matriculas (escola_id, data_inicio) where status = 'ATIVA';
+
+-- Relatório de evasão: matrículas CANCELADAS em uma faixa de data_fim
+create index idx_matriculas_canceladas_data_fim on matriculas (data_fim) where status = 'CANCELADA';
+
+-- Busca de alunos por prefixo do nome (sem acentos/maiúsculas): com collation diferente de C, um btree comum não
+-- atende LIKE 'x%'; varchar_pattern_ops compara byte a byte e atende
+create index idx_alunos_nome_normalizado on alunos (nome_normalizado varchar_pattern_ops);
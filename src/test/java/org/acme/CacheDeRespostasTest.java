@@ -0,0 +1,40 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Os endpoints consultados por polling respondem 304 enquanto os dados não mudam e uma nova ETag após qualquer escrita.
+ */
+@QuarkusTest
+class CacheDeRespostasTest {
+
+    @Test
+    void respondeNaoModificadoAteAProximaEscrita() {
+        Long escolaId = given().contentType("application/json")
+                .body("{\"nome\": \"Escola ETag\", \"capacidade\": 5}")
+                .post("/v1/escolas").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        String etag = given().get("/v1/escolas/disponiveis").then().statusCode(200)
+                .extract().header("ETag");
+        assertNotNull(etag);
+        given().header("If-None-Match", etag).get("/v1/escolas/disponiveis").then().statusCode(304);
+
+        Long alunoId = given().contentType("application/json")
+                .body("{\"nome\": \"Aluno ETag\", \"idade\": 9, \"dataNascimento\": \"2016-01-01\", \"escolaId\": " + escolaId + "}")
+                .post("/v1/alunos").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        given().contentType("application/json")
+                .body("{\"alunoId\": " + alunoId + ", \"escolaId\": " + escolaId + ", \"dataInicio\": \"2025-02-01\"}")
+                .post("/v1/matriculas").then().statusCode(201);
+
+        String novaEtag = given().header("If-None-Match", etag).get("/v1/escolas/disponiveis").then().statusCode(200)
+                .extract().header("ETag");
+        assertNotEquals(etag, novaEtag);
+    }
+}
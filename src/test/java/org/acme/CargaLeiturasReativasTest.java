@@ -0,0 +1,62 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a vazão por core do relatório de ocupação no stack bloqueante (/v1, repositórios Panache chamados
+ * direto no controller) e na variante Mutiny (/v2/reativo, thread de I/O + consulta em virtual thread).
+ * <p>
+ * Fora da suíte padrão; executar com {@code mvn test -Pcarga}.
+ */
+@QuarkusTest
+@TestProfile(PerfilCarga.class)
+@Tag("carga")
+class CargaLeiturasReativasTest {
+
+    private static final Logger LOG = Logger.getLogger(CargaLeiturasReativasTest.class);
+
+    private static final int CLIENTES_SIMULTANEOS = 400;
+    private static final int REQUISICOES = 20000;
+    // A variante reativa não pode custar vazão por core; a folga cobre a variação entre execuções
+    private static final double GANHO_MINIMO = 0.9;
+
+    @ConfigProperty(name = "quarkus.http.test-port")
+    int porta;
+
+    @Test
+    void compararBloqueanteEReativo() throws Exception {
+        Long escolaId = given().contentType("application/json")
+                .body("{\"nome\": \"Escola Carga\", \"capacidade\": 100}")
+                .post("/v1/escolas").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        String bloqueante = "/v1/escolas/" + escolaId + "/ocupacao";
+        String reativo = "/v2/reativo/escolas/" + escolaId + "/ocupacao";
+
+        MedidorDeCarga medidor = new MedidorDeCarga(porta, CLIENTES_SIMULTANEOS);
+        medidor.medir(bloqueante, 2000);
+        medidor.medir(reativo, 2000);
+
+        MedidorDeCarga.Resultado resultadoBloqueante = medidor.medir(bloqueante, REQUISICOES);
+        MedidorDeCarga.Resultado resultadoReativo = medidor.medir(reativo, REQUISICOES);
+
+        LOG.infof("%d clientes, %d requisições, %d cores", CLIENTES_SIMULTANEOS, REQUISICOES,
+                Runtime.getRuntime().availableProcessors());
+        LOG.infof("bloqueante (/v1):      %s", resultadoBloqueante);
+        LOG.infof("reativo (/v2/reativo): %s", resultadoReativo);
+
+        assertEquals(0, resultadoBloqueante.falhas(), "Requisições com falha no stack bloqueante");
+        assertEquals(0, resultadoReativo.falhas(), "Requisições com falha no stack reativo");
+        double ganho = resultadoReativo.requisicoesPorSegundoPorCore() / resultadoBloqueante.requisicoesPorSegundoPorCore();
+        assertTrue(ganho >= GANHO_MINIMO, String.format(
+                "Vazão por core do stack reativo %.2fx a do bloqueante; esperado ao menos %.2fx", ganho, GANHO_MINIMO));
+    }
+}
@@ -0,0 +1,55 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara vazão e p99 do mesmo endpoint bloqueante rodando no worker pool e em virtual threads, com muitos
+ * clientes simultâneos e uma latência fixa simulando banco/serviço lento, e exige o ganho de vazão.
+ * <p>
+ * Fora da suíte padrão; executar com {@code mvn test -Pcarga}.
+ */
+@QuarkusTest
+@TestProfile(PerfilCarga.class)
+@Tag("carga")
+class CargaVirtualThreadsTest {
+
+    private static final Logger LOG = Logger.getLogger(CargaVirtualThreadsTest.class);
+
+    private static final int CLIENTES_SIMULTANEOS = 800;
+    private static final int REQUISICOES = 8000;
+    // O worker pool atende no máximo WORKER_THREADS / latência requisições por segundo; em virtual threads o limite
+    // passa a ser a CPU
+    private static final double GANHO_MINIMO = 1.5;
+
+    @ConfigProperty(name = "quarkus.http.test-port")
+    int porta;
+
+    @Test
+    void compararWorkerPoolEVirtualThreads() throws Exception {
+        MedidorDeCarga medidor = new MedidorDeCarga(porta, CLIENTES_SIMULTANEOS);
+        medidor.medir("/carga/worker", 500);
+        medidor.medir("/carga/virtual", 500);
+
+        MedidorDeCarga.Resultado worker = medidor.medir("/carga/worker", REQUISICOES);
+        MedidorDeCarga.Resultado virtual = medidor.medir("/carga/virtual", REQUISICOES);
+
+        LOG.infof("%d clientes, %d requisições, latência simulada %d ms, worker pool de %d threads",
+                CLIENTES_SIMULTANEOS, REQUISICOES, RecursoDeCarga.LATENCIA_MS, PerfilCarga.WORKER_THREADS);
+        LOG.infof("worker pool:     %s", worker);
+        LOG.infof("virtual threads: %s", virtual);
+
+        assertEquals(0, worker.falhas(), "Requisições com falha no worker pool");
+        assertEquals(0, virtual.falhas(), "Requisições com falha em virtual threads");
+        double ganho = virtual.requisicoesPorSegundo() / worker.requisicoesPorSegundo();
+        assertTrue(ganho >= GANHO_MINIMO, String.format(
+                "Vazão em virtual threads %.2fx a do worker pool; esperado ao menos %.1fx", ganho, GANHO_MINIMO));
+    }
+}
@@ -0,0 +1,127 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.acme.repositories.MatriculaRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Garante que cada endpoint executa um número fixo de comandos SQL,
+ * independente da quantidade de escolas, alunos e matrículas (sem N+1).
+ */
+@QuarkusTest
+class FetchPlanQueryCountTest {
+
+    private static Long escolaId;
+    private static Long alunoId;
+    private static final List<Long> matriculaIds = new ArrayList<>();
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    MatriculaRepository matriculaRepository;
+
+    @BeforeEach
+    void popularBase() {
+        if (escolaId != null) {
+            return;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int e = 0; e < 5; e++) {
+                Escola escola = new Escola("Escola Plano " + e, 100);
+                escola.persist();
+                for (int a = 0; a < 10; a++) {
+                    Aluno aluno = new Aluno("Aluno Plano " + e + "-" + a, 6 + a);
+                    aluno.persist();
+                    Matricula matricula = new Matricula(aluno, escola);
+                    matricula.setStatus(a % 3 == 0 ? Matricula.StatusMatricula.CANCELADA : Matricula.StatusMatricula.ATIVA);
+                    matricula.setDataFim(a % 3 == 0 ? LocalDateTime.now() : null);
+                    matriculaRepository.registrar(matricula);
+                    matriculaIds.add(matricula.id);
+                    escolaId = escola.id;
+                    alunoId = aluno.id;
+                }
+            }
+        });
+    }
+
+    @Test
+    void listagemDeMatriculasUsaUmaConsulta() {
+        assertStatements(1, () -> given().get("/v1/matriculas?limit=50").then().statusCode(200));
+    }
+
+    @Test
+    void listagemDeEscolasUsaUmaConsulta() {
+        assertStatements(1, () -> given().get("/v1/escolas").then().statusCode(200));
+        assertStatements(1, () -> given().get("/v1/escolas/disponiveis").then().statusCode(200));
+    }
+
+    @Test
+    void matriculasDoAlunoNaoCarregamGrafoCompleto() {
+        assertStatements(2, () -> given().get("/v1/alunos/" + alunoId + "/matriculas").then().statusCode(200));
+    }
+
+    @Test
+    void ocupacaoNaoCarregaMatriculas() {
+        assertStatements(2, () -> given().get("/v1/escolas/" + escolaId + "/ocupacao").then().statusCode(200));
+    }
+
+    @Test
+    void leiturasRepetidasSaoAtendidasPeloCache() {
+        given().get("/v1/escolas/" + escolaId + "/ocupacao").then().statusCode(200);
+        assertStatements(0, () -> given().get("/v1/escolas/" + escolaId + "/ocupacao").then().statusCode(200));
+
+        given().get("/v1/alunos/search?nome=aluno%20plano").then().statusCode(200);
+        assertStatements(0, () -> given().get("/v1/alunos/search?nome=aluno%20plano").then().statusCode(200));
+    }
+
+    @Test
+    void mediaIdadeAgregadaNoBanco() {
+        assertStatements(1, () -> given().get("/v1/alunos/media-idade").then().statusCode(200));
+    }
+
+    @Test
+    void relatoriosNaoFazemN1() {
+        assertStatements(1, () -> given().get("/v2/relatorios/escolas/ranking").then().statusCode(200));
+        String hoje = LocalDate.now().toString();
+        assertStatements(1, () -> given().get("/v2/relatorios/alunos/evasao?dataInicio=" + hoje + "&dataFim=" + hoje)
+                .then().statusCode(200));
+    }
+
+    @Test
+    void statusEmLoteNaoFazUmaConsultaPorMatricula() {
+        String ids = matriculaIds.stream().map(id -> "ids=" + id).collect(Collectors.joining("&"));
+        // 1 SELECT (IN) + 1 UPDATE de contador por escola (5) + UPDATEs das matrículas em batch
+        assertStatements(7, () -> given().contentType("application/json").body("{\"ativo\": true}")
+                .patch("/v1/matriculas/lote/status?" + ids).then().statusCode(200));
+        assertStatements(7, () -> given().contentType("application/json").body("{\"ativo\": false}")
+                .patch("/v1/matriculas/lote/status?" + ids).then().statusCode(200));
+    }
+
+    private void assertStatements(long maximo, Runnable chamada) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        chamada.run();
+        long executados = statistics.getPrepareStatementCount();
+        assertTrue(executados <= maximo,
+                "Esperado no máximo " + maximo + " comandos SQL, mas foram executados " + executados);
+    }
+}
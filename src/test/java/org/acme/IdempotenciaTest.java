@@ -0,0 +1,44 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Repetições com a mesma Idempotency-Key reproduzem a primeira resposta sem reexecutar a operação.
+ */
+@QuarkusTest
+class IdempotenciaTest {
+
+    @Test
+    void repeticoesConcorrentesCriamUmaUnicaEscola() throws Exception {
+        String corpo = "{\"nome\": \"Escola Idempotente\", \"capacidade\": 10}";
+        ExecutorService clientes = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> respostas = IntStream.range(0, 8)
+                    .mapToObj(i -> clientes.submit(() -> given().header("Idempotency-Key", "escola-idempotente")
+                            .contentType("application/json").body(corpo)
+                            .post("/v1/escolas").then().statusCode(201)
+                            .extract().jsonPath().getLong("id")))
+                    .toList();
+            Long primeiroId = respostas.get(0).get();
+            for (Future<Long> resposta : respostas) {
+                assertEquals(primeiroId, resposta.get());
+            }
+        } finally {
+            clientes.shutdownNow();
+        }
+
+        given().header("Idempotency-Key", "escola-idempotente")
+                .contentType("application/json").body("{\"nome\": \"Outra Escola\", \"capacidade\": 10}")
+                .post("/v1/escolas").then().statusCode(422);
+    }
+}
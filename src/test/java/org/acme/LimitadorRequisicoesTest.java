@@ -0,0 +1,38 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.auth.ClienteApi;
+import org.acme.ratelimit.ConsumoLimite;
+import org.acme.ratelimit.GrupoLimite;
+import org.acme.ratelimit.LimitadorRequisicoes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cada cliente tem um balde próprio por grupo de rotas, com rajada limitada e tempo de espera informado.
+ */
+@QuarkusTest
+class LimitadorRequisicoesTest {
+
+    @Inject
+    LimitadorRequisicoes limitador;
+
+    @Test
+    void rajadaDeRelatoriosEsgotaApenasOBaldeDoCliente() {
+        ClienteApi cliente = new ClienteApi("teste-rajada", null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limitador.consumir("cliente:teste-rajada", cliente, GrupoLimite.RELATORIO).permitido());
+        }
+        ConsumoLimite negado = limitador.consumir("cliente:teste-rajada", cliente, GrupoLimite.RELATORIO);
+        assertFalse(negado.permitido());
+        assertEquals(0, negado.restantes());
+        assertTrue(negado.segundosParaRetry() > 0);
+
+        assertTrue(limitador.consumir("cliente:teste-rajada", cliente, GrupoLimite.LEITURA).permitido());
+        assertTrue(limitador.consumir("cliente:outro", new ClienteApi("outro", null), GrupoLimite.RELATORIO).permitido());
+    }
+}
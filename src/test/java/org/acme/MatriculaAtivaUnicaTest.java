@@ -0,0 +1,55 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A regra "uma matrícula ATIVA por aluno e escola" fica no índice único parcial da migração V2: a violação vira
+ * 400 e a transação é desfeita, sem alterar o contador de matrículas ativas da escola.
+ */
+@QuarkusTest
+class MatriculaAtivaUnicaTest {
+
+    @Test
+    void segundaMatriculaAtivaNaMesmaEscolaEhRecusadaPeloBanco() {
+        Long escolaId = QuarkusTransaction.requiringNew().call(() -> {
+            Escola escola = new Escola("Escola Matricula Unica", 10);
+            escola.persist();
+            return escola.id;
+        });
+        Long alunoId = QuarkusTransaction.requiringNew().call(() -> {
+            Aluno aluno = new Aluno("Aluno Matricula Unica", 10);
+            aluno.persist();
+            return aluno.id;
+        });
+        String corpo = "{\"alunoId\":" + alunoId + ",\"escolaId\":" + escolaId + ",\"dataInicio\":\"2025-02-01\"}";
+
+        Long primeiraId = given().contentType("application/json").body(corpo)
+                .post("/v1/matriculas").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        given().contentType("application/json").body(corpo)
+                .post("/v1/matriculas").then().statusCode(400)
+                .body("message", containsString("já possui uma matrícula ATIVA"));
+
+        // Cancelada a primeira, uma nova matrícula é aceita; reativar a antiga passa a violar o índice
+        given().delete("/v1/matriculas/" + primeiraId).then().statusCode(204);
+        given().contentType("application/json").body(corpo)
+                .post("/v1/matriculas").then().statusCode(201);
+        given().contentType("application/json").body("{\"ativo\": true}")
+                .patch("/v1/matriculas/" + primeiraId + "/status").then().statusCode(400)
+                .body("message", containsString("já possui uma matrícula ATIVA"));
+
+        assertEquals(1L, QuarkusTransaction.requiringNew().call(() ->
+                Matricula.count("escola.id = ?1 and status = ?2", escolaId, Matricula.StatusMatricula.ATIVA)));
+        assertEquals(1L, QuarkusTransaction.requiringNew().call(() ->
+                Escola.<Escola>findById(escolaId).getAlunosAtivos()));
+    }
+}
@@ -0,0 +1,86 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import org.acme.entities.Aluno;
+import org.acme.entities.Escola;
+import org.acme.entities.Matricula;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispara matrículas em paralelo contra uma única escola e verifica que a capacidade nunca é excedida.
+ */
+@QuarkusTest
+class MatriculaConcorrenciaTest {
+
+    private static final int CAPACIDADE = 40;
+    private static final int TENTATIVAS = 2000;
+    private static final int THREADS = 32;
+
+    @Test
+    void matriculasConcorrentesNaoExcedemCapacidade() throws Exception {
+        Long escolaId = QuarkusTransaction.requiringNew().call(() -> {
+            Escola escola = new Escola("Escola Concorrencia", CAPACIDADE);
+            escola.persist();
+            return escola.id;
+        });
+        List<Long> alunoIds = QuarkusTransaction.requiringNew().call(() -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < TENTATIVAS; i++) {
+                Aluno aluno = new Aluno("Aluno Concorrencia " + i, 10);
+                aluno.persist();
+                ids.add(aluno.id);
+            }
+            return ids;
+        });
+
+        AtomicInteger criadas = new AtomicInteger();
+        AtomicInteger inesperadas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long alunoId : alunoIds) {
+                futures.add(executor.submit(() -> {
+                    int status = given()
+                            .contentType("application/json")
+                            .body("{\"alunoId\":" + alunoId + ",\"escolaId\":" + escolaId + ",\"dataInicio\":\"2025-02-01\"}")
+                            .post("/v1/matriculas")
+                            .statusCode();
+                    if (status == 201) {
+                        criadas.incrementAndGet();
+                    } else if (status != 400) {
+                        inesperadas.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        long ativasNoBanco = QuarkusTransaction.requiringNew().call(() ->
+                Matricula.count("escola.id = ?1 and status = ?2", escolaId, Matricula.StatusMatricula.ATIVA));
+        long contador = QuarkusTransaction.requiringNew().call(() ->
+                Escola.<Escola>findById(escolaId).getAlunosAtivos());
+
+        assertEquals(0, inesperadas.get(), "Respostas diferentes de 201/400");
+        assertEquals(CAPACIDADE, criadas.get());
+        assertEquals(CAPACIDADE, ativasNoBanco);
+        assertEquals(CAPACIDADE, contador);
+    }
+}
@@ -0,0 +1,82 @@
+package org.acme;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Dispara GETs concorrentes contra a aplicação de teste e mede vazão, p99 e falhas. Usado pelos testes de carga.
+ */
+class MedidorDeCarga {
+
+    private final int porta;
+    private final int clientesSimultaneos;
+
+    MedidorDeCarga(int porta, int clientesSimultaneos) {
+        this.porta = porta;
+        this.clientesSimultaneos = clientesSimultaneos;
+    }
+
+    Resultado medir(String caminho, int requisicoes) throws Exception {
+        URI uri = new URL("http", "localhost", porta, caminho).toURI();
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>(requisicoes));
+        Semaphore clientes = new Semaphore(clientesSimultaneos);
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long inicio = System.nanoTime();
+        List<Future<Integer>> respostas = new ArrayList<>(requisicoes);
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requisicoes; i++) {
+                clientes.acquire();
+                respostas.add(executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } finally {
+                        latencias.add(System.nanoTime() - t0);
+                        clientes.release();
+                    }
+                }));
+            }
+            int falhas = 0;
+            for (Future<Integer> resposta : respostas) {
+                try {
+                    if (resposta.get() != 200) {
+                        falhas++;
+                    }
+                } catch (Exception e) {
+                    falhas++;
+                }
+            }
+            long duracaoNanos = System.nanoTime() - inicio;
+
+            List<Long> ordenadas = new ArrayList<>(latencias);
+            Collections.sort(ordenadas);
+            long p99 = ordenadas.get((int) Math.ceil(ordenadas.size() * 0.99) - 1);
+            return new Resultado(requisicoes * 1e9 / duracaoNanos, p99 / 1_000_000.0, falhas);
+        }
+    }
+
+    record Resultado(double requisicoesPorSegundo, double p99Ms, int falhas) {
+
+        double requisicoesPorSegundoPorCore() {
+            return requisicoesPorSegundo / Runtime.getRuntime().availableProcessors();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s (%.0f req/s por core), p99 %.1f ms, %d falhas",
+                    requisicoesPorSegundo, requisicoesPorSegundoPorCore(), p99Ms, falhas);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.acme.metricas.MetricasEscolas;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * O endpoint de scrape expõe o tempo por rota, as chamadas aos repositórios e o gauge de matrículas ativas por escola.
+ */
+@QuarkusTest
+class MetricasTest {
+
+    @Inject
+    MetricasEscolas metricasEscolas;
+
+    @Test
+    void expoeMetricasDasRotasRepositoriosEEscolas() {
+        Long escolaId = given().contentType("application/json")
+                .body("{\"nome\": \"Escola Metricas\", \"capacidade\": 5}")
+                .post("/v1/escolas").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        Long alunoId = given().contentType("application/json")
+                .body("{\"nome\": \"Aluno Metricas\", \"idade\": 9, \"dataNascimento\": \"2016-01-01\", \"escolaId\": " + escolaId + "}")
+                .post("/v1/alunos").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        given().contentType("application/json")
+                .body("{\"alunoId\": " + alunoId + ", \"escolaId\": " + escolaId + ", \"dataInicio\": \"2025-02-01\"}")
+                .post("/v1/matriculas").then().statusCode(201);
+        given().get("/v1/escolas/" + escolaId + "/ocupacao").then().statusCode(200);
+        metricasEscolas.atualizar();
+
+        given().get("/q/metrics").then().statusCode(200)
+                .body(containsString("http_server_requests_seconds_count{method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/v1/escolas/{id}/ocupacao\"}"))
+                .body(containsString("api_repositorio_chamadas_seconds_count{metodo=\"ocupacao\",repositorio=\"EscolaRepository\",resultado=\"sucesso\"}"))
+                .body(containsString("api_escola_matriculas_ativas{escola=\"" + escolaId + "\"} 1.0"))
+                .body(containsString("api_interceptor_sobrecarga_seconds_count{interceptor=\"idempotencia\"}"))
+                .body(containsString("api_rate_limit_rejeicoes_total{grupo=\"leitura\"}"));
+    }
+}
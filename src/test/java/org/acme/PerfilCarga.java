@@ -0,0 +1,25 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Perfil dos testes de carga: inclui o {@link RecursoDeCarga} na aplicação (as demais suítes não o enxergam) e
+ * desliga o rate limit, que rejeitaria a rajada de requisições de um único cliente.
+ * <p>
+ * O worker pool fica com tamanho fixo (o padrão cresce com o número de cores), para que a comparação com virtual
+ * threads meça o mesmo gargalo em qualquer máquina.
+ */
+public class PerfilCarga implements QuarkusTestProfile {
+
+    static final int WORKER_THREADS = 20;
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                RecursoDeCarga.HABILITADO, "true",
+                "api.rate-limit.habilitado", "false",
+                "quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS));
+    }
+}
@@ -0,0 +1,80 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.acme.interceptors.QueryBudget;
+import org.acme.repositories.AlunoRepository;
+import org.acme.repositories.EscolaRepository;
+import org.acme.repositories.MatriculaRepository;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * Nos testes, uma rota que passa do orçamento de SQL ou repete o mesmo SELECT (N+1) responde com erro.
+ */
+@QuarkusTest
+class QueryBudgetTest {
+
+    @Path("/orcamento-sql")
+    @QueryBudget(comandos = 3)
+    public static class RecursoComOrcamento {
+
+        @Inject
+        AlunoRepository alunoRepository;
+
+        @Inject
+        EscolaRepository escolaRepository;
+
+        @Inject
+        MatriculaRepository matriculaRepository;
+
+        @GET
+        @Path("/dentro")
+        @Transactional
+        public long dentro() {
+            return alunoRepository.count() + escolaRepository.count();
+        }
+
+        @GET
+        @Path("/acima")
+        @Transactional
+        @QueryBudget(comandos = 2)
+        public long acima() {
+            return alunoRepository.count() + escolaRepository.count() + matriculaRepository.count();
+        }
+
+        @GET
+        @Path("/n-mais-um")
+        @Transactional
+        @QueryBudget(comandos = QueryBudget.SEM_LIMITE)
+        public long nMaisUm() {
+            long total = 0;
+            for (int i = 0; i < 12; i++) {
+                total += alunoRepository.count();
+            }
+            return total;
+        }
+    }
+
+    @Test
+    void rotaDentroDoOrcamentoResponde() {
+        given().get("/orcamento-sql/dentro").then().statusCode(200);
+    }
+
+    @Test
+    void rotaAcimaDoOrcamentoFalha() {
+        given().get("/orcamento-sql/acima").then().statusCode(500)
+                .body(containsString("3 comandos (limite 2)"));
+    }
+
+    @Test
+    void selectRepetidoApontaNMaisUm() {
+        given().get("/orcamento-sql/n-mais-um").then().statusCode(500)
+                .body(containsString("possível N+1"));
+    }
+}
@@ -0,0 +1,41 @@
+package org.acme;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.acme.repositories.EscolaRepository;
+
+/**
+ * Endpoint bloqueante com latência fixa (banco/serviço lento simulado), exposto no worker pool e em virtual
+ * threads. Só existe na aplicação montada com o {@link PerfilCarga}.
+ */
+@Path("/carga")
+@IfBuildProperty(name = RecursoDeCarga.HABILITADO, stringValue = "true")
+public class RecursoDeCarga {
+
+    static final String HABILITADO = "api.testes.recurso-de-carga";
+    static final long LATENCIA_MS = 50;
+
+    @Inject
+    EscolaRepository escolaRepository;
+
+    @GET
+    @Path("/worker")
+    public long worker() throws InterruptedException {
+        return consultar();
+    }
+
+    @GET
+    @Path("/virtual")
+    @RunOnVirtualThread
+    public long virtual() throws InterruptedException {
+        return consultar();
+    }
+
+    private long consultar() throws InterruptedException {
+        Thread.sleep(LATENCIA_MS);
+        return escolaRepository.count();
+    }
+}
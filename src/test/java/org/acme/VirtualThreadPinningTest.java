@@ -0,0 +1,62 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit5.virtual.ShouldNotPin;
+import io.quarkus.test.junit5.virtual.VirtualThreadUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Os controllers v1 rodam em virtual threads; falha se algum caminho (Hibernate, transação, JDBC)
+ * bloquear a virtual thread dentro de um bloco synchronized, prendendo a carrier thread.
+ */
+@QuarkusTest
+@VirtualThreadUnit
+@ShouldNotPin
+class VirtualThreadPinningTest {
+
+    @Test
+    void crudDeMatriculasNaoPrendeCarrierThreads() throws Exception {
+        Long escolaId = given().contentType("application/json")
+                .body("{\"nome\": \"Escola Virtual\", \"capacidade\": 10}")
+                .post("/v1/escolas").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        // Requisições concorrentes disputam a mesma linha da escola (reserva de vaga) e o pool de conexões
+        ExecutorService clientes = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> respostas = IntStream.range(0, 32)
+                    .mapToObj(i -> clientes.submit(() -> {
+                        Long alunoId = given().contentType("application/json")
+                                .body("{\"nome\": \"Aluno Virtual " + i + "\", \"idade\": 10, \"dataNascimento\": \"2015-01-01\", \"escolaId\": " + escolaId + "}")
+                                .post("/v1/alunos").then().statusCode(201)
+                                .extract().jsonPath().getLong("id");
+                        return given().contentType("application/json")
+                                .body("{\"alunoId\": " + alunoId + ", \"escolaId\": " + escolaId + ", \"dataInicio\": \"2025-02-01\"}")
+                                .post("/v1/matriculas").statusCode();
+                    }))
+                    .toList();
+            long criadas = 0;
+            for (Future<Integer> resposta : respostas) {
+                if (resposta.get() == 201) {
+                    criadas++;
+                }
+            }
+            assertEquals(10, criadas);
+        } finally {
+            clientes.shutdownNow();
+        }
+
+        given().get("/v1/matriculas?limit=100").then().statusCode(200);
+        given().get("/v1/escolas/" + escolaId + "/ocupacao").then().statusCode(200);
+        given().get("/v1/alunos/search?nome=aluno%20virtual").then().statusCode(200);
+    }
+}